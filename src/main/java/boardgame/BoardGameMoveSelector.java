@@ -1,6 +1,9 @@
 package boardgame;
 
+import boardgame.ai.MoveProvider;
 import boardgame.model.BoardGameModel;
+import boardgame.model.BoardState;
+import boardgame.model.Move;
 import boardgame.model.Position;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
@@ -73,6 +76,29 @@ public class BoardGameMoveSelector {
         }
     }
 
+    /**
+     * Selects both squares of an encoded move, as two clicks would.
+     * @param move the encoded move.
+     */
+    public void selectMove(int move) {
+        if (phase.get() != Phase.SELECT_FROM) {
+            Logger.warn("Illegal state, a selection is already in progress.");
+            throw new IllegalStateException();
+        }
+        selectFrom(BoardState.position(Move.from(move)));
+        if (phase.get() == Phase.SELECT_TO) {
+            selectTo(BoardState.position(Move.to(move)));
+        }
+    }
+
+    /**
+     * Lets a computer player choose the move, and selects it.
+     * @param provider the computer player.
+     */
+    public void selectWith(MoveProvider provider) {
+        selectMove(provider.selectMove(model.getState()));
+    }
+
     private void selectFrom(Position position) {
         Logger.info("Selecting From position.");
         if (!model.isEmpty(position) && model.isCorrectPlayer(position, model.getPlayer())) {
@@ -16,5 +16,6 @@ public class BoardGameApplication extends Application {
         stage.setScene(new Scene(root));
         stage.setResizable(false);
         stage.show();
+        LeaderboardScene.preload();
     }
 }
@@ -1,19 +1,21 @@
 package boardgame.UI;
 
 import boardgame.BoardGameMoveSelector;
+import boardgame.ai.AlphaBetaSearch;
+import boardgame.ai.MoveProvider;
 import boardgame.model.BoardGameModel;
+import boardgame.model.MoveGenerator;
 import boardgame.model.Position;
 import boardgame.model.Square;
 import javafx.application.Platform;
 import javafx.beans.binding.ObjectBinding;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.value.ObservableValue;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
+import javafx.scene.control.CheckBox;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.StackPane;
@@ -34,6 +36,13 @@ public class BoardGameController {
 
     private BoardGameMoveSelector selector = new BoardGameMoveSelector(model);
 
+    @FXML
+    private CheckBox computer;
+
+    private final MoveProvider computerPlayer = new AlphaBetaSearch();
+
+    private boolean computerThinking = false;
+
     @FXML
     private void initialize() {
         for (var i = 0; i < board.getRowCount(); i++) {
@@ -57,6 +66,9 @@ public class BoardGameController {
 
     @FXML
     private void handleMouseClick(MouseEvent event) {
+        if (computerThinking) {
+            return;
+        }
         var square = (StackPane) event.getSource();
         var row = GridPane.getRowIndex(square);
         var col = GridPane.getColumnIndex(square);
@@ -64,11 +76,57 @@ public class BoardGameController {
         selector.select(new Position(row, col));
         Logger.info(String.format("%s\n", selector.getPhase()));
         switch (selector.getPhase()) {
-            case READY_TO_MOVE -> selector.makeMove();
+            case READY_TO_MOVE -> {
+                selector.makeMove();
+                playComputerMove();
+            }
             case ERROR_AT_FROM, ERROR_AT_TO -> selector.reset();
         }
     }
 
+    private boolean isComputerTurn() {
+        return computer.isSelected() && model.getPlayer() == BoardGameModel.Player.PLAYER_2;
+    }
+
+    private void playComputerMove() {
+        if (!isComputerTurn()
+                || model.generateMoves(new int[MoveGenerator.MAX_MOVES]) == 0) {
+            return;
+        }
+        var state = model.getState();
+        var task = new Task<Integer>() {
+            @Override
+            protected Integer call() {
+                return computerPlayer.selectMove(state);
+            }
+        };
+        task.setOnSucceeded(event -> {
+            computerThinking = false;
+            selector.selectMove(task.getValue());
+            if (selector.isReadyToMove()) {
+                selector.makeMove();
+            } else {
+                selector.reset();
+            }
+        });
+        task.setOnFailed(event -> {
+            computerThinking = false;
+            Logger.error(task.getException(), "Computer player failed.");
+        });
+        computerThinking = true;
+        var thread = new Thread(task, "computer-player");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @FXML
+    private void handleComputerToggle(ActionEvent event) {
+        if (!computerThinking) {
+            cancelSelection();
+            playComputerMove();
+        }
+    }
+
     private ObjectBinding<Paint> createSquareBinding(ReadOnlyObjectProperty<Square> squareProperty) {
         return new ObjectBinding<Paint>() {
             {
@@ -114,11 +172,41 @@ public class BoardGameController {
         throw new AssertionError();
     }
 
+    @FXML
+    private void handleUndo(ActionEvent event) {
+        if (!computerThinking && model.canUndo()) {
+            cancelSelection();
+            model.undo();
+            while (isComputerTurn() && model.canUndo()) {
+                model.undo();
+            }
+            playComputerMove();
+        }
+    }
+
+    @FXML
+    private void handleRedo(ActionEvent event) {
+        if (!computerThinking && model.canRedo()) {
+            cancelSelection();
+            model.redo();
+            while (isComputerTurn() && model.canRedo()) {
+                model.redo();
+            }
+            playComputerMove();
+        }
+    }
+
+    private void cancelSelection() {
+        if (selector.getPhase() == BoardGameMoveSelector.Phase.SELECT_TO) {
+            hideSelection(selector.getFrom());
+        }
+        selector.reset();
+    }
+
     @FXML
     private void switchScene(ActionEvent event) throws IOException {
         Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-        Parent root = FXMLLoader.load(getClass().getResource("/leaderboardUI.fxml"));
-        stage.setScene(new Scene(root));
+        stage.setScene(LeaderboardScene.get());
         stage.show();
     }
 
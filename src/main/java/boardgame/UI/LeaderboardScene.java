@@ -0,0 +1,47 @@
+package boardgame.UI;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Scene;
+
+import java.io.IOException;
+
+/**
+ * Holds the leaderboard scene, so it is loaded from FXML only once.
+ * Showing it again refreshes its table in the background.
+ */
+final class LeaderboardScene {
+
+    private static Scene scene;
+    private static TableViewController controller;
+
+    private LeaderboardScene() {
+    }
+
+    /**
+     * Loads the scene ahead of its first use, which also starts loading the leaderboard.
+     * Must be called on the JavaFX application thread.
+     * @throws IOException if the FXML cannot be loaded
+     */
+    static void preload() throws IOException {
+        if (scene == null) {
+            var loader = new FXMLLoader(LeaderboardScene.class.getResource("/leaderboardUI.fxml"));
+            scene = new Scene(loader.load());
+            controller = loader.getController();
+        }
+    }
+
+    /**
+     * Returns the scene with a freshly loading leaderboard.
+     * Must be called on the JavaFX application thread.
+     * @return the leaderboard scene
+     * @throws IOException if the FXML cannot be loaded
+     */
+    static Scene get() throws IOException {
+        if (scene == null) {
+            preload();
+        } else {
+            controller.refresh();
+        }
+        return scene;
+    }
+}
@@ -3,24 +3,36 @@ package boardgame.UI;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import boardgame.result.JsonGameResultManager;
+import boardgame.result.GameResultManagers;
 import boardgame.result.PlayerStatistics;
 import boardgame.result.GameResult;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
+import org.tinylog.Logger;
 
 import java.io.IOException;
-import java.nio.file.Path;
+import java.util.List;
 
 public class TableViewController {
+
+    /**
+     * Number of players fetched at a time.
+     */
+    static final int PAGE_SIZE = 50;
+
     @FXML
     private TableView<PlayerStatistics> tableView;
 
@@ -31,12 +43,125 @@ public class TableViewController {
     private TableColumn<GameResult, Long> numberOfWins;
 
     @FXML
-    private void initialize() throws IOException {
+    private TableColumn<PlayerStatistics, Double> rating;
+
+    @FXML
+    private TableColumn<PlayerStatistics, Long> games;
+
+    @FXML
+    private TableColumn<PlayerStatistics, Long> losses;
+
+    @FXML
+    private TableColumn<PlayerStatistics, Double> winRate;
+
+    @FXML
+    private TableColumn<PlayerStatistics, Double> meanMoves;
+
+    @FXML
+    private TableColumn<PlayerStatistics, Integer> medianMoves;
+
+    @FXML
+    private TableColumn<PlayerStatistics, Integer> p90Moves;
+
+    @FXML
+    private TableColumn<PlayerStatistics, Long> longestWinStreak;
+
+    @FXML
+    private ProgressIndicator progress;
+
+    @FXML
+    private Button more;
+
+    @FXML
+    private CheckBox byRating;
+
+    private final ObservableList<PlayerStatistics> players = FXCollections.observableArrayList();
+
+    private Task<List<PlayerStatistics>> loading;
+
+    @FXML
+    private void initialize() {
         winnerName.setCellValueFactory(new PropertyValueFactory<>("winnerName"));
         numberOfWins.setCellValueFactory(new PropertyValueFactory<>("numberOfWins"));
-        ObservableList<PlayerStatistics> observableList = FXCollections.observableArrayList();
-        observableList.addAll(new JsonGameResultManager(Path.of("results.json")).getBestPlayers(10));
-        tableView.setItems(observableList);
+        rating.setCellValueFactory(new PropertyValueFactory<>("rating"));
+        rating.setCellFactory(column -> formatted("%.0f", 1, false));
+        games.setCellValueFactory(new PropertyValueFactory<>("games"));
+        losses.setCellValueFactory(new PropertyValueFactory<>("losses"));
+        winRate.setCellValueFactory(new PropertyValueFactory<>("winRate"));
+        winRate.setCellFactory(column -> formatted("%.1f %%", 100, true));
+        meanMoves.setCellValueFactory(new PropertyValueFactory<>("meanMoves"));
+        meanMoves.setCellFactory(column -> formatted("%.1f", 1, true));
+        medianMoves.setCellValueFactory(new PropertyValueFactory<>("medianMoves"));
+        p90Moves.setCellValueFactory(new PropertyValueFactory<>("p90Moves"));
+        longestWinStreak.setCellValueFactory(new PropertyValueFactory<>("longestWinStreak"));
+        tableView.setItems(players);
+        refresh();
+    }
+
+    /**
+     * Creates a cell showing a number in the given format.
+     * A rating is zero when the players are not ranked by rating, so zero can be shown as an empty cell.
+     */
+    private static TableCell<PlayerStatistics, Double> formatted(String format, double scale, boolean showZero) {
+        return new TableCell<>() {
+            @Override
+            protected void updateItem(Double value, boolean empty) {
+                super.updateItem(value, empty);
+                setText(empty || value == null || (!showZero && value == 0) ? null : String.format(format, value * scale));
+            }
+        };
+    }
+
+    /**
+     * Empties the table, and loads the first page of the leaderboard again.
+     */
+    void refresh() {
+        if (loading != null) {
+            loading.cancel();
+        }
+        players.clear();
+        loadPage();
+    }
+
+    @FXML
+    private void handleRankingToggle(ActionEvent event) {
+        refresh();
+    }
+
+    @FXML
+    private void handleMore(ActionEvent event) {
+        if (loading == null || !loading.isRunning()) {
+            loadPage();
+        }
+    }
+
+    /**
+     * Fetches the next page of players in the background, and appends it to the table.
+     */
+    private void loadPage() {
+        var from = players.size();
+        var rankByRating = byRating.isSelected();
+        var task = new Task<List<PlayerStatistics>>() {
+            @Override
+            protected List<PlayerStatistics> call() throws IOException {
+                var manager = GameResultManagers.defaultManager();
+                var best = rankByRating
+                        ? manager.getTopRatedPlayers(from + PAGE_SIZE)
+                        : manager.getPlayerStatistics(from + PAGE_SIZE);
+                return best.subList(Math.min(from, best.size()), best.size());
+            }
+        };
+        task.setOnSucceeded(event -> {
+            players.addAll(task.getValue());
+            more.setDisable(task.getValue().size() < PAGE_SIZE);
+        });
+        task.setOnFailed(event -> Logger.error(task.getException(), "Failed to load the leaderboard."));
+        progress.visibleProperty().bind(task.runningProperty());
+        more.setDisable(true);
+        loading = task;
+        var thread = new Thread(task, "leaderboard-loader");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     @FXML
@@ -0,0 +1,271 @@
+package boardgame.ai;
+
+import boardgame.model.BoardState;
+import boardgame.model.MoveGenerator;
+import boardgame.model.Outcome;
+import boardgame.model.TerminalPatterns;
+import org.tinylog.Logger;
+
+import java.time.Duration;
+
+/**
+ * Computer opponent using iterative-deepening alpha-beta search.
+ * Positions are cached in a {@link TranspositionTable}, and moves are ordered
+ * by the table's best move first, then by the killer moves of the ply.
+ */
+public class AlphaBetaSearch implements MoveProvider {
+
+    /**
+     * Score of a won position, reduced by the number of plies to the win.
+     */
+    public static final int WIN_SCORE = 10_000;
+
+    private static final int MAX_PLY = 64;
+
+    private static final int INFINITY = WIN_SCORE + 1;
+
+    private final int maxDepth;
+    private final long timeLimit;
+    private final TranspositionTable table;
+
+    private final int[][] moves = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY][2];
+
+    private BoardState state;
+    private long deadline;
+    private boolean aborted;
+    private int rootMove;
+
+    private long nodes;
+    private int completedDepth;
+    private int score;
+    private long elapsed;
+
+    /**
+     * Creates a searcher.
+     * @param maxDepth the maximum depth of the search, in plies.
+     * @param timeLimit the time a move may take.
+     * @param tableSizeLog2 the base 2 logarithm of the number of transposition table slots.
+     */
+    public AlphaBetaSearch(int maxDepth, Duration timeLimit, int tableSizeLog2) {
+        if (maxDepth < 1 || maxDepth >= MAX_PLY) {
+            throw new IllegalArgumentException("Depth out of range.");
+        }
+        this.maxDepth = maxDepth;
+        this.timeLimit = timeLimit.toNanos();
+        this.table = new TranspositionTable(tableSizeLog2);
+    }
+
+    /**
+     * Creates a searcher with a one second time limit.
+     */
+    public AlphaBetaSearch() {
+        this(MAX_PLY - 1, Duration.ofSeconds(1), 20);
+    }
+
+    @Override
+    public int selectMove(BoardState position) {
+        state = position.copy();
+        if (state.generateMoves(moves[0]) == 0) {
+            throw new IllegalStateException("No legal moves.");
+        }
+        long start = System.nanoTime();
+        deadline = start + timeLimit;
+        aborted = false;
+        nodes = 0;
+        completedDepth = 0;
+        table.newSearch();
+        for (int[] killer : killers) {
+            killer[0] = -1;
+            killer[1] = -1;
+        }
+        int bestMove = moves[0][0];
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            int result = negamax(depth, 0, -INFINITY, INFINITY);
+            if (aborted) {
+                break;
+            }
+            bestMove = rootMove;
+            score = result;
+            completedDepth = depth;
+            Logger.trace("Depth {} score {} nodes {} in {} ms", depth, score, nodes, (System.nanoTime() - start) / 1_000_000);
+            if (Math.abs(score) > WIN_SCORE - MAX_PLY) {
+                break;
+            }
+        }
+        elapsed = System.nanoTime() - start;
+        Logger.debug("Search finished at depth {} with score {}, {} nodes/s.", completedDepth, score, getNodesPerSecond());
+        return bestMove;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        if ((++nodes & 0x3FF) == 0 && System.nanoTime() > deadline) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        var outcome = state.evaluateTerminal(state.player());
+        if (outcome != Outcome.ONGOING) {
+            return outcome == Outcome.WIN ? WIN_SCORE - ply : ply - WIN_SCORE;
+        }
+        if (depth == 0) {
+            return evaluate(state);
+        }
+
+        long hash = Zobrist.hash(state);
+        long entry = table.probe(hash);
+        int hashMove = -1;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int stored = fromTable(TranspositionTable.score(entry), ply);
+                switch (TranspositionTable.flag(entry)) {
+                    case TranspositionTable.EXACT -> {
+                        return stored;
+                    }
+                    case TranspositionTable.LOWER_BOUND -> alpha = Math.max(alpha, stored);
+                    default -> beta = Math.min(beta, stored);
+                }
+                if (alpha >= beta) {
+                    return stored;
+                }
+            }
+        }
+
+        int[] buffer = moves[ply];
+        int count = state.generateMoves(buffer);
+        if (count == 0) {
+            return ply - WIN_SCORE;
+        }
+        int ordered = promote(buffer, count, 0, hashMove);
+        ordered = promote(buffer, count, ordered, killers[ply][0]);
+        promote(buffer, count, ordered, killers[ply][1]);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = buffer[0];
+        for (int i = 0; i < count; i++) {
+            int move = buffer[i];
+            state.makeMove(move);
+            int value = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            state.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+            if (value > best) {
+                best = value;
+                bestMove = move;
+            }
+            if (value > alpha) {
+                alpha = value;
+            }
+            if (alpha >= beta) {
+                if (killers[ply][0] != move) {
+                    killers[ply][1] = killers[ply][0];
+                    killers[ply][0] = move;
+                }
+                break;
+            }
+        }
+        int flag = best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                : best >= beta ? TranspositionTable.LOWER_BOUND
+                : TranspositionTable.EXACT;
+        table.store(hash, bestMove, depth, flag, toTable(best, ply));
+        if (ply == 0) {
+            rootMove = bestMove;
+        }
+        return best;
+    }
+
+    private static int promote(int[] buffer, int count, int position, int move) {
+        if (move < 0) {
+            return position;
+        }
+        for (int i = position; i < count; i++) {
+            if (buffer[i] == move) {
+                buffer[i] = buffer[position];
+                buffer[position] = move;
+                return position + 1;
+            }
+        }
+        return position;
+    }
+
+    private static int toTable(int score, int ply) {
+        if (score > WIN_SCORE - MAX_PLY) {
+            return score + ply;
+        } else if (score < MAX_PLY - WIN_SCORE) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > WIN_SCORE - MAX_PLY) {
+            return score - ply;
+        } else if (score < MAX_PLY - WIN_SCORE) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Static evaluation of an ongoing position, from the view of the player to move.
+     * Rewards pieces gathered in winning placements not blocked by the other player.
+     * @param state the position.
+     * @return the score of the position.
+     */
+    public static int evaluate(BoardState state) {
+        int own = state.pieces(state.player());
+        int enemy = state.occupied() & ~own;
+        int score = 0;
+        for (int i = 0; i < TerminalPatterns.winPatternCount(); i++) {
+            int pattern = TerminalPatterns.winPattern(i);
+            int ownCount = Integer.bitCount(own & pattern);
+            int enemyCount = Integer.bitCount(enemy & pattern);
+            if (enemyCount == 0) {
+                score += ownCount * ownCount;
+            }
+            if (ownCount == 0) {
+                score -= enemyCount * enemyCount;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * @return the number of positions visited by the last search.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the visited positions per second of the last search.
+     */
+    public long getNodesPerSecond() {
+        return elapsed == 0 ? 0 : nodes * 1_000_000_000L / elapsed;
+    }
+
+    /**
+     * @return the deepest fully searched depth of the last search.
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * @return the score of the last search, from the view of the player who moved.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return the length of the last search.
+     */
+    public Duration getElapsed() {
+        return Duration.ofNanos(elapsed);
+    }
+}
@@ -0,0 +1,62 @@
+package boardgame.ai;
+
+import boardgame.model.BoardState;
+import boardgame.model.MoveGenerator;
+import boardgame.model.Outcome;
+
+import java.util.SplittableRandom;
+
+/**
+ * Computer player looking one move ahead.
+ * It takes a winning move if there is one, avoids moves that lose at once,
+ * and otherwise picks the move with the best {@link AlphaBetaSearch#evaluate static evaluation},
+ * breaking ties at random. Instances are not thread-safe.
+ */
+public class GreedyMoveProvider implements MoveProvider {
+
+    private final SplittableRandom random;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * @param seed the seed of the random generator.
+     */
+    public GreedyMoveProvider(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Creates a player with a random seed.
+     */
+    public GreedyMoveProvider() {
+        random = new SplittableRandom();
+    }
+
+    @Override
+    public int selectMove(BoardState state) {
+        int count = state.generateMoves(moves);
+        if (count == 0) {
+            throw new IllegalStateException("No legal moves.");
+        }
+        var child = state.copy();
+        var player = state.player();
+        int bestMove = moves[0];
+        int bestScore = Integer.MIN_VALUE;
+        int ties = 0;
+        for (int i = 0; i < count; i++) {
+            child.makeMove(moves[i]);
+            var outcome = child.evaluateTerminal(player);
+            int score = outcome == Outcome.WIN ? AlphaBetaSearch.WIN_SCORE
+                    : outcome == Outcome.LOSS ? -AlphaBetaSearch.WIN_SCORE
+                    : -AlphaBetaSearch.evaluate(child);
+            child.unmakeMove();
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = moves[i];
+                ties = 1;
+            } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                bestMove = moves[i];
+            }
+        }
+        return bestMove;
+    }
+}
@@ -0,0 +1,219 @@
+package boardgame.ai;
+
+import boardgame.model.BoardGameModel.Player;
+import boardgame.model.BoardState;
+import boardgame.model.Move;
+import boardgame.model.MoveGenerator;
+import boardgame.model.Outcome;
+import org.tinylog.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Computer opponent using Monte Carlo Tree Search with the UCT selection rule.
+ * Worker threads share one tree. A thread counts its visit on every node of its path
+ * before the rollout finishes, which acts as a virtual loss and steers the other
+ * threads to different branches. Rollouts play random moves on a headless
+ * {@link BoardState}; a rollout reaching the ply limit counts as a draw.
+ */
+public class MonteCarloTreeSearch implements MoveProvider, AutoCloseable {
+
+    private static final int MAX_ROLLOUT_PLIES = 200;
+
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    private final Duration thinkTime;
+    private final ForkJoinPool pool;
+    private final int threads;
+
+    private long rollouts;
+    private long elapsed;
+
+    /**
+     * Creates a searcher.
+     * @param thinkTime the time a move may take.
+     * @param threads the number of worker threads.
+     */
+    public MonteCarloTreeSearch(Duration thinkTime, int threads) {
+        this.thinkTime = thinkTime;
+        this.threads = threads;
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Creates a searcher using all the cores.
+     * @param thinkTime the time a move may take.
+     */
+    public MonteCarloTreeSearch(Duration thinkTime) {
+        this(thinkTime, Runtime.getRuntime().availableProcessors());
+    }
+
+    private static final class Node {
+        private final int move;
+        private final AtomicInteger visits = new AtomicInteger();
+        private final AtomicLong halfPoints = new AtomicLong();
+        private final AtomicReference<Node[]> children = new AtomicReference<>();
+
+        private Node(int move) {
+            this.move = move;
+        }
+
+        private Node[] expand(BoardState state, int[] buffer) {
+            var expanded = children.get();
+            if (expanded != null) {
+                return expanded;
+            }
+            int count = state.generateMoves(buffer);
+            var created = new Node[count];
+            for (int i = 0; i < count; i++) {
+                created[i] = new Node(buffer[i]);
+            }
+            return children.compareAndSet(null, created) ? created : children.get();
+        }
+
+        private Node select() {
+            var nodes = children.get();
+            double logVisits = Math.log(Math.max(1, visits.get()));
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (var child : nodes) {
+                int n = child.visits.get();
+                if (n == 0) {
+                    return child;
+                }
+                double value = child.halfPoints.get() / (2.0 * n) + EXPLORATION * Math.sqrt(logVisits / n);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+
+    @Override
+    public int selectMove(BoardState state) {
+        var root = new Node(-1);
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        var children = root.expand(state, buffer);
+        if (children.length == 0) {
+            throw new IllegalStateException("No legal moves.");
+        }
+        long start = System.nanoTime();
+        long deadline = start + thinkTime.toNanos();
+        var counter = new LongAdder();
+        var workers = new ArrayList<Future<?>>();
+        for (int i = 0; i < threads; i++) {
+            long seed = start + i;
+            workers.add(pool.submit(() -> work(root, state, deadline, seed, counter)));
+        }
+        for (var worker : workers) {
+            try {
+                worker.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        elapsed = System.nanoTime() - start;
+        rollouts = counter.sum();
+        Node best = children[0];
+        for (var child : children) {
+            if (child.visits.get() > best.visits.get()) {
+                best = child;
+            }
+        }
+        Logger.debug("MCTS played {} rollouts on {} threads, {} rollouts/s, best move {}.",
+                rollouts, threads, getRolloutsPerSecond(), Move.toString(best.move));
+        return best.move;
+    }
+
+    private static void work(Node root, BoardState position, long deadline, long seed, LongAdder counter) {
+        var random = new SplittableRandom(seed);
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        var path = new Node[MAX_ROLLOUT_PLIES + 1];
+        while (System.nanoTime() < deadline) {
+            var state = position.copy();
+            var node = root;
+            int length = 0;
+            path[length++] = node;
+            node.visits.incrementAndGet();
+            while (node.children.get() != null && node.children.get().length > 0 && length < MAX_ROLLOUT_PLIES) {
+                node = node.select();
+                node.visits.incrementAndGet();
+                state.move(Move.from(node.move), Move.to(node.move));
+                path[length++] = node;
+            }
+            if (node.visits.get() > 1 && length < MAX_ROLLOUT_PLIES) {
+                var expanded = node.expand(state, buffer);
+                if (expanded.length > 0) {
+                    node = expanded[random.nextInt(expanded.length)];
+                    node.visits.incrementAndGet();
+                    state.move(Move.from(node.move), Move.to(node.move));
+                    path[length++] = node;
+                }
+            }
+            var winner = rollout(state, buffer, random, MAX_ROLLOUT_PLIES - length);
+            var mover = position.player();
+            for (int i = 1; i < length; i++) {
+                path[i].halfPoints.addAndGet(winner == null ? 1 : winner == mover ? 2 : 0);
+                mover = mover == Player.PLAYER_1 ? Player.PLAYER_2 : Player.PLAYER_1;
+            }
+            counter.increment();
+        }
+    }
+
+    /**
+     * Plays random moves until the game ends.
+     * @return the winner, or {@code null} for a draw.
+     */
+    private static Player rollout(BoardState state, int[] buffer, SplittableRandom random, int plies) {
+        for (int ply = 0; ply <= plies; ply++) {
+            var outcome = state.evaluateTerminal(state.player());
+            if (outcome != Outcome.ONGOING) {
+                return outcome == Outcome.WIN ? state.player() : opponent(state.player());
+            }
+            int count = state.generateMoves(buffer);
+            if (count == 0) {
+                return opponent(state.player());
+            }
+            int move = buffer[random.nextInt(count)];
+            state.move(Move.from(move), Move.to(move));
+        }
+        return null;
+    }
+
+    private static Player opponent(Player player) {
+        return player == Player.PLAYER_1 ? Player.PLAYER_2 : Player.PLAYER_1;
+    }
+
+    /**
+     * @return the number of rollouts of the last search.
+     */
+    public long getRollouts() {
+        return rollouts;
+    }
+
+    /**
+     * @return the rollouts per second of the last search.
+     */
+    public long getRolloutsPerSecond() {
+        return elapsed == 0 ? 0 : rollouts * 1_000_000_000L / elapsed;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,19 @@
+package boardgame.ai;
+
+import boardgame.model.BoardState;
+
+/**
+ * Chooses the next move of the player to move, instead of the mouse clicks of a human player.
+ */
+public interface MoveProvider {
+
+    /**
+     * Chooses a move for the player to move.
+     * The given position must not be changed.
+     * @param state the current position.
+     * @return the chosen move, encoded by {@link boardgame.model.Move}.
+     * @throws IllegalStateException if the player to move has no legal moves
+     */
+    int selectMove(BoardState state);
+
+}
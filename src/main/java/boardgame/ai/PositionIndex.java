@@ -0,0 +1,127 @@
+package boardgame.ai;
+
+import boardgame.model.BoardGameModel.Player;
+import boardgame.model.BoardState;
+
+/**
+ * Maps every placement of four red and four blue pieces, with the player to move,
+ * to a dense index in {@code [0, SIZE)}.
+ * The red pieces are ranked among the 4-subsets of the 16 squares, and the blue
+ * pieces among the 4-subsets of the 12 squares left free by them.
+ */
+public final class PositionIndex {
+
+    private static final int SQUARES = BoardState.SQUARES;
+    private static final int FREE_SQUARES = SQUARES - BoardState.PIECES;
+
+    private static final short[] RED_RANK = new short[1 << SQUARES];
+    private static final int[] RED_PLACEMENTS = placements(SQUARES, RED_RANK);
+    private static final short[] BLUE_RANK = new short[1 << FREE_SQUARES];
+    private static final int[] BLUE_PLACEMENTS = placements(FREE_SQUARES, BLUE_RANK);
+
+    /**
+     * Number of indexed positions.
+     */
+    public static final int SIZE = RED_PLACEMENTS.length * BLUE_PLACEMENTS.length * 2;
+
+    private PositionIndex() {
+    }
+
+    private static int[] placements(int squares, short[] rank) {
+        int count = 0;
+        for (int mask = 0; mask < 1 << squares; mask++) {
+            if (Integer.bitCount(mask) == BoardState.PIECES) {
+                count++;
+            }
+        }
+        int[] placements = new int[count];
+        int n = 0;
+        for (int mask = 0; mask < 1 << squares; mask++) {
+            if (Integer.bitCount(mask) == BoardState.PIECES) {
+                rank[mask] = (short) n;
+                placements[n++] = mask;
+            }
+        }
+        return placements;
+    }
+
+    private static int compress(int pieces, int skipped) {
+        int result = 0;
+        int bit = 0;
+        for (int square = 0; square < SQUARES; square++) {
+            if ((skipped & (1 << square)) == 0) {
+                if ((pieces & (1 << square)) != 0) {
+                    result |= 1 << bit;
+                }
+                bit++;
+            }
+        }
+        return result;
+    }
+
+    private static int expand(int compressed, int skipped) {
+        int result = 0;
+        int bit = 0;
+        for (int square = 0; square < SQUARES; square++) {
+            if ((skipped & (1 << square)) == 0) {
+                if ((compressed & (1 << bit)) != 0) {
+                    result |= 1 << square;
+                }
+                bit++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param red the mask of the four red pieces.
+     * @param blue the mask of the four blue pieces.
+     * @param player the player to move.
+     * @return the index of the position.
+     */
+    public static int index(int red, int blue, Player player) {
+        int redRank = RED_RANK[red];
+        int blueRank = BLUE_RANK[compress(blue, red)];
+        return (redRank * BLUE_PLACEMENTS.length + blueRank) * 2 + player.ordinal();
+    }
+
+    /**
+     * @param state a position with four pieces of each colour.
+     * @return the index of the position.
+     */
+    public static int index(BoardState state) {
+        return index(state.red(), state.blue(), state.player());
+    }
+
+    /**
+     * @param index an index in {@code [0, SIZE)}.
+     * @return the mask of the red pieces of the indexed position.
+     */
+    public static int red(int index) {
+        return RED_PLACEMENTS[index / 2 / BLUE_PLACEMENTS.length];
+    }
+
+    /**
+     * @param index an index in {@code [0, SIZE)}.
+     * @return the mask of the blue pieces of the indexed position.
+     */
+    public static int blue(int index) {
+        return expand(BLUE_PLACEMENTS[index / 2 % BLUE_PLACEMENTS.length], red(index));
+    }
+
+    /**
+     * @param index an index in {@code [0, SIZE)}.
+     * @return the player to move in the indexed position.
+     */
+    public static Player player(int index) {
+        return Player.values()[index & 1];
+    }
+
+    /**
+     * @param index an index in {@code [0, SIZE)}.
+     * @return the indexed position.
+     */
+    public static BoardState state(int index) {
+        return new BoardState(red(index), blue(index), player(index));
+    }
+}
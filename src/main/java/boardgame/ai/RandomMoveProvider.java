@@ -0,0 +1,39 @@
+package boardgame.ai;
+
+import boardgame.model.BoardState;
+import boardgame.model.MoveGenerator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Computer player choosing uniformly among the legal moves.
+ * Instances are not thread-safe.
+ */
+public class RandomMoveProvider implements MoveProvider {
+
+    private final SplittableRandom random;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * @param seed the seed of the random generator.
+     */
+    public RandomMoveProvider(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Creates a player with a random seed.
+     */
+    public RandomMoveProvider() {
+        random = new SplittableRandom();
+    }
+
+    @Override
+    public int selectMove(BoardState state) {
+        int count = state.generateMoves(moves);
+        if (count == 0) {
+            throw new IllegalStateException("No legal moves.");
+        }
+        return moves[random.nextInt(count)];
+    }
+}
@@ -0,0 +1,154 @@
+package boardgame.ai;
+
+import boardgame.model.BoardState;
+import boardgame.model.MoveGenerator;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Perfect-play lookup in a solved endgame table, written by {@link TablebaseGenerator}.
+ * The file is memory-mapped, so a lookup is a single read from the page cache,
+ * and the table takes no heap space.
+ *
+ * <p>The file starts with a header of three {@code int}s: {@link #MAGIC}, {@link #VERSION}
+ * and the number of entries. Then follows one {@code short} per {@link PositionIndex} entry,
+ * holding the value in the top two bits and the distance to the end of the game in plies
+ * in the remaining bits.</p>
+ */
+public class Tablebase implements MoveProvider, AutoCloseable {
+
+    /**
+     * Value of a position that cannot be reached from the starting position.
+     */
+    public static final int UNREACHABLE = 0;
+
+    /**
+     * Value of a position won by the player to move.
+     */
+    public static final int WIN = 1;
+
+    /**
+     * Value of a position lost by the player to move.
+     */
+    public static final int LOSS = 2;
+
+    /**
+     * Value of a position where neither player can force a result.
+     */
+    public static final int DRAW = 3;
+
+    static final int MAGIC = 0x44414F54;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 3 * Integer.BYTES;
+    static final int DISTANCE_MASK = 0x3FFF;
+
+    private final FileChannel channel;
+    private final ByteBuffer entries;
+
+    private Tablebase(FileChannel channel, ByteBuffer entries) {
+        this.channel = channel;
+        this.entries = entries;
+    }
+
+    /**
+     * Maps a table file into memory.
+     * @param path the file written by {@link TablebaseGenerator}.
+     * @return the opened table.
+     * @throws IOException if the file cannot be read, or is not a table file
+     */
+    public static Tablebase open(Path path) throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getInt(8) != PositionIndex.SIZE
+                    || buffer.capacity() != HEADER_BYTES + (long) PositionIndex.SIZE * Short.BYTES) {
+                throw new IOException("Not a Dao tablebase: " + path);
+            }
+            Logger.info("Tablebase mapped from {}.", path);
+            return new Tablebase(channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param state a position with four pieces of each colour.
+     * @return the raw entry of the position.
+     */
+    public int probe(BoardState state) {
+        return entries.getShort(HEADER_BYTES + PositionIndex.index(state) * Short.BYTES) & 0xFFFF;
+    }
+
+    /**
+     * @param state a position with four pieces of each colour.
+     * @return one of {@link #WIN}, {@link #LOSS}, {@link #DRAW} and {@link #UNREACHABLE},
+     * from the view of the player to move.
+     */
+    public int value(BoardState state) {
+        return value(probe(state));
+    }
+
+    /**
+     * @param state a position with four pieces of each colour.
+     * @return the number of plies to the end of the game with perfect play.
+     */
+    public int distance(BoardState state) {
+        return distance(probe(state));
+    }
+
+    static int value(int entry) {
+        return entry >>> 14;
+    }
+
+    static int distance(int entry) {
+        return entry & DISTANCE_MASK;
+    }
+
+    static int entry(int value, int distance) {
+        return value << 14 | Math.min(distance, DISTANCE_MASK);
+    }
+
+    /**
+     * Chooses a perfect move: the fastest win, a drawing move,
+     * or the slowest loss, in this order of preference.
+     */
+    @Override
+    public int selectMove(BoardState state) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = state.generateMoves(moves);
+        if (count == 0) {
+            throw new IllegalStateException("No legal moves.");
+        }
+        var child = state.copy();
+        int bestMove = moves[0];
+        int bestRank = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            child.makeMove(moves[i]);
+            int entry = probe(child);
+            child.unmakeMove();
+            int rank = switch (value(entry)) {
+                case LOSS -> Integer.MAX_VALUE - distance(entry);
+                case DRAW -> 0;
+                case WIN -> Integer.MIN_VALUE + 1 + distance(entry);
+                default -> -1;
+            };
+            if (rank > bestRank) {
+                bestRank = rank;
+                bestMove = moves[i];
+            }
+        }
+        return bestMove;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,185 @@
+package boardgame.ai;
+
+import boardgame.model.BoardGameModel.Player;
+import boardgame.model.BoardState;
+import boardgame.model.MoveGenerator;
+import boardgame.model.Outcome;
+import org.tinylog.Logger;
+import util.AtomicFiles;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Solves the game by retrograde analysis, and writes the result for {@link Tablebase}.
+ * Every position is labelled as won, lost or drawn for the player to move,
+ * with the number of plies to the end of the game. The passes run in parallel
+ * over the position index, on all cores.
+ */
+public class TablebaseGenerator {
+
+    private static final int UNKNOWN = 0;
+
+    private final AtomicIntegerArray entries = new AtomicIntegerArray(PositionIndex.SIZE);
+    private final AtomicIntegerArray unresolvedMoves = new AtomicIntegerArray(PositionIndex.SIZE);
+    private final AtomicLongArray reachable = new AtomicLongArray((PositionIndex.SIZE + 63) / 64);
+
+    /**
+     * Solves every position.
+     * @return the number of plies of the longest forced win.
+     */
+    public int solve() {
+        long start = System.nanoTime();
+        IntStream.range(0, PositionIndex.SIZE).parallel().forEach(this::initialize);
+        int distance = 0;
+        while (true) {
+            var level = distance;
+            var changed = new LongAdder();
+            IntStream.range(0, PositionIndex.SIZE).parallel()
+                    .filter(i -> entries.get(i) != UNKNOWN && Tablebase.distance(entries.get(i)) == level)
+                    .forEach(i -> propagate(i, level, changed));
+            if (changed.sum() == 0) {
+                break;
+            }
+            distance++;
+            Logger.info("Retrograde pass {} resolved {} positions.", distance, changed.sum());
+        }
+        IntStream.range(0, PositionIndex.SIZE).parallel()
+                .filter(i -> entries.get(i) == UNKNOWN)
+                .forEach(i -> entries.set(i, Tablebase.entry(Tablebase.DRAW, 0)));
+        markReachable();
+        Logger.info("Solved {} positions in {} ms.", PositionIndex.SIZE, (System.nanoTime() - start) / 1_000_000);
+        return distance;
+    }
+
+    private void initialize(int index) {
+        var state = PositionIndex.state(index);
+        var outcome = state.evaluateTerminal(state.player());
+        if (outcome != Outcome.ONGOING) {
+            entries.set(index, Tablebase.entry(outcome == Outcome.WIN ? Tablebase.WIN : Tablebase.LOSS, 0));
+            return;
+        }
+        int count = state.generateMoves(new int[MoveGenerator.MAX_MOVES]);
+        if (count == 0) {
+            entries.set(index, Tablebase.entry(Tablebase.LOSS, 0));
+        } else {
+            unresolvedMoves.set(index, count);
+        }
+    }
+
+    /**
+     * Passes a resolved position to the positions one move before it.
+     * Moves are reversible, so the predecessors are found by moving a piece
+     * of the player who just moved along its free rays.
+     */
+    private void propagate(int index, int distance, LongAdder changed) {
+        int red = PositionIndex.red(index);
+        int blue = PositionIndex.blue(index);
+        var player = PositionIndex.player(index);
+        var previous = player == Player.PLAYER_1 ? Player.PLAYER_2 : Player.PLAYER_1;
+        boolean lost = Tablebase.value(entries.get(index)) == Tablebase.LOSS;
+        int occupied = red | blue;
+        int moved = previous == Player.PLAYER_1 ? red : blue;
+        for (int pieces = moved; pieces != 0; pieces &= pieces - 1) {
+            int to = Integer.numberOfTrailingZeros(pieces);
+            for (int targets = MoveGenerator.targets(occupied, to); targets != 0; targets &= targets - 1) {
+                int change = 1 << to | 1 << Integer.numberOfTrailingZeros(targets);
+                int predecessor = previous == Player.PLAYER_1
+                        ? PositionIndex.index(red ^ change, blue, previous)
+                        : PositionIndex.index(red, blue ^ change, previous);
+                if (entries.get(predecessor) != UNKNOWN) {
+                    continue;
+                }
+                if (lost) {
+                    if (entries.compareAndSet(predecessor, UNKNOWN, Tablebase.entry(Tablebase.WIN, distance + 1))) {
+                        changed.increment();
+                    }
+                } else if (unresolvedMoves.decrementAndGet(predecessor) == 0
+                        && entries.compareAndSet(predecessor, UNKNOWN, Tablebase.entry(Tablebase.LOSS, distance + 1))) {
+                    changed.increment();
+                }
+            }
+        }
+    }
+
+    private void markReachable() {
+        int start = PositionIndex.index(new BoardState());
+        setReachable(start);
+        var frontier = new int[] {start};
+        while (frontier.length > 0) {
+            frontier = IntStream.of(frontier).parallel()
+                    .flatMap(this::expand)
+                    .toArray();
+        }
+    }
+
+    private IntStream expand(int index) {
+        var state = PositionIndex.state(index);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = state.generateMoves(moves);
+        var next = IntStream.builder();
+        for (int i = 0; i < count; i++) {
+            state.makeMove(moves[i]);
+            int child = PositionIndex.index(state);
+            state.unmakeMove();
+            if (setReachable(child)) {
+                next.add(child);
+            }
+        }
+        return next.build();
+    }
+
+    private boolean setReachable(int index) {
+        long bit = 1L << index;
+        int word = index >>> 6;
+        long old;
+        do {
+            old = reachable.get(word);
+            if ((old & bit) != 0) {
+                return false;
+            }
+        } while (!reachable.compareAndSet(word, old, old | bit));
+        return true;
+    }
+
+    /**
+     * Writes the solved table, leaving positions unreachable from the start marked as such.
+     * The file is written next to the target and then moved in place, keeping the permissions of the old one.
+     * @param path the target file.
+     * @throws IOException if any I/O error occurs
+     */
+    public void write(Path path) throws IOException {
+        AtomicFiles.replace(path, temp -> {
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(Tablebase.MAGIC);
+                out.writeInt(Tablebase.VERSION);
+                out.writeInt(PositionIndex.SIZE);
+                for (int i = 0; i < PositionIndex.SIZE; i++) {
+                    boolean isReachable = (reachable.get(i >>> 6) & (1L << i)) != 0;
+                    out.writeShort(isReachable ? entries.get(i) : Tablebase.UNREACHABLE);
+                }
+            }
+        });
+        Logger.info("Tablebase written to {}.", path);
+    }
+
+    public static void main(String[] args) throws IOException {
+        var path = Path.of(args.length > 0 ? args[0] : "dao.tablebase");
+        var generator = new TablebaseGenerator();
+        var longest = generator.solve();
+        generator.write(path);
+        try (var tablebase = Tablebase.open(path)) {
+            var start = new BoardState();
+            System.out.printf("Longest forced win: %d plies%n", longest);
+            System.out.printf("Starting position: value %d, distance %d%n",
+                    tablebase.value(start), tablebase.distance(start));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package boardgame.ai;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size, lock-free transposition table.
+ * Each slot holds two {@code long}s: the packed entry, and the hash XOR-ed with the entry.
+ * A slot torn by concurrent writers fails the hash check and reads as a miss,
+ * so no locking is needed. An entry is replaced by a deeper search of the same
+ * iteration, or by any search once it is left over from an earlier one.
+ */
+public class TranspositionTable {
+
+    /**
+     * The stored score is exact.
+     */
+    public static final int EXACT = 0;
+
+    /**
+     * The stored score is a lower bound.
+     */
+    public static final int LOWER_BOUND = 1;
+
+    /**
+     * The stored score is an upper bound.
+     */
+    public static final int UPPER_BOUND = 2;
+
+    private static final int NO_MOVE = 0xFF;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+    private int generation;
+
+    /**
+     * Creates an empty table.
+     * @param sizeLog2 the base 2 logarithm of the number of slots.
+     */
+    public TranspositionTable(int sizeLog2) {
+        if (sizeLog2 < 1 || sizeLog2 > 30) {
+            throw new IllegalArgumentException("Table size out of range.");
+        }
+        keys = new long[1 << sizeLog2];
+        entries = new long[1 << sizeLog2];
+        mask = (1 << sizeLog2) - 1;
+    }
+
+    /**
+     * Starts a new search, making the older entries the first to be replaced.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0x3F;
+    }
+
+    /**
+     * Looks up a position.
+     * @param hash the Zobrist hash of the position.
+     * @return the packed entry, or {@code 0} if the position is not stored.
+     */
+    public long probe(long hash) {
+        int i = (int) hash & mask;
+        long entry = entries[i];
+        return (keys[i] ^ entry) == hash ? entry : 0;
+    }
+
+    /**
+     * Stores the result of a search, if the replacement policy allows it.
+     * @param hash the Zobrist hash of the position.
+     * @param move the best move found, or {@code -1}.
+     * @param depth the remaining depth of the search.
+     * @param flag one of {@link #EXACT}, {@link #LOWER_BOUND} and {@link #UPPER_BOUND}.
+     * @param score the score of the search.
+     */
+    public void store(long hash, int move, int depth, int flag, int score) {
+        int i = (int) hash & mask;
+        long old = entries[i];
+        if (old != 0 && generation(old) == generation && depth(old) > depth && (keys[i] ^ old) != hash) {
+            return;
+        }
+        long entry = (move < 0 ? NO_MOVE : move)
+                | (long) depth << 8
+                | (long) flag << 16
+                | (long) generation << 18
+                | (long) (score & 0xFFFF) << 32
+                | 1L << 63;
+        entries[i] = entry;
+        keys[i] = hash ^ entry;
+    }
+
+    /**
+     * Empties the table.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(entries, 0);
+    }
+
+    /**
+     * @param entry a packed entry.
+     * @return the stored move, or {@code -1} if there is none.
+     */
+    public static int move(long entry) {
+        int move = (int) entry & 0xFF;
+        return move == NO_MOVE ? -1 : move;
+    }
+
+    /**
+     * @param entry a packed entry.
+     * @return the remaining depth of the stored search.
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> 8) & 0xFF;
+    }
+
+    /**
+     * @param entry a packed entry.
+     * @return the type of the stored score.
+     */
+    public static int flag(long entry) {
+        return (int) (entry >>> 16) & 0x3;
+    }
+
+    /**
+     * @param entry a packed entry.
+     * @return the stored score.
+     */
+    public static int score(long entry) {
+        return (short) (entry >>> 32);
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> 18) & 0x3F;
+    }
+}
@@ -0,0 +1,71 @@
+package boardgame.ai;
+
+import boardgame.model.BoardGameModel.Player;
+import boardgame.model.BoardState;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist hashing of positions.
+ * Every square has a random key per colour, and the hash of a position is the
+ * XOR of the keys of its pieces. The keys are folded into per-byte tables,
+ * so a hash costs four lookups regardless of the position.
+ */
+public final class Zobrist {
+
+    private static final long[] RED_LOW = new long[256];
+    private static final long[] RED_HIGH = new long[256];
+    private static final long[] BLUE_LOW = new long[256];
+    private static final long[] BLUE_HIGH = new long[256];
+    private static final long SIDE;
+
+    static {
+        var random = new SplittableRandom(0x0DA0_6A3EL);
+        long[] red = new long[BoardState.SQUARES];
+        long[] blue = new long[BoardState.SQUARES];
+        for (int i = 0; i < BoardState.SQUARES; i++) {
+            red[i] = random.nextLong();
+            blue[i] = random.nextLong();
+        }
+        SIDE = random.nextLong();
+        fold(red, 0, RED_LOW);
+        fold(red, 8, RED_HIGH);
+        fold(blue, 0, BLUE_LOW);
+        fold(blue, 8, BLUE_HIGH);
+    }
+
+    private Zobrist() {
+    }
+
+    private static void fold(long[] keys, int offset, long[] table) {
+        for (int b = 0; b < table.length; b++) {
+            long key = 0;
+            for (int bit = 0; bit < 8; bit++) {
+                if ((b & (1 << bit)) != 0) {
+                    key ^= keys[offset + bit];
+                }
+            }
+            table[b] = key;
+        }
+    }
+
+    /**
+     * @param red the mask of the red pieces.
+     * @param blue the mask of the blue pieces.
+     * @param player the player to move.
+     * @return the hash of the position.
+     */
+    public static long hash(int red, int blue, Player player) {
+        long hash = RED_LOW[red & 0xFF] ^ RED_HIGH[red >>> 8 & 0xFF]
+                ^ BLUE_LOW[blue & 0xFF] ^ BLUE_HIGH[blue >>> 8 & 0xFF];
+        return player == Player.PLAYER_2 ? hash ^ SIDE : hash;
+    }
+
+    /**
+     * @param state a position.
+     * @return the hash of the position.
+     */
+    public static long hash(BoardState state) {
+        return hash(state.red(), state.blue(), state.player());
+    }
+}
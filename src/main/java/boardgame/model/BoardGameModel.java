@@ -1,15 +1,10 @@
 package boardgame.model;
 
-import com.github.javafaker.Faker;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import org.tinylog.Logger;
-import boardgame.result.GameResult;
 
-import java.time.ZonedDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Locale;
+import java.util.Arrays;
 
 /**
  * The implemented model of the Dao game.
@@ -32,46 +27,32 @@ public class BoardGameModel {
     private ReadOnlyObjectWrapper<Square>[][] board = new ReadOnlyObjectWrapper[BOARD_SIZE][BOARD_SIZE];
 
     private ReadOnlyObjectWrapper<Player> player = new ReadOnlyObjectWrapper<Player>(Player.PLAYER_1);
-    private ArrayList<ArrayList<Integer>> sub_board = new ArrayList<>();
 
-    private void BoardInitializer() {
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            ArrayList<Integer> row = new ArrayList<>();
-            for (var j = 0; j < BOARD_SIZE; j++) {
-                if (i==j) {
-                    row.add(1);
-                } else if (i+j==BOARD_SIZE-1) {
-                    row.add(2);
-                } else row.add(0);
-            }
-            sub_board.add(row);
-            Logger.info("Sub_gameboard succesfully created.");
-        }
-    }
+    private final BoardState state = new BoardState();
+
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final long[] legalMoves = new long[4];
 
     /**
      * Creates the gameboard for the game.
      */
     public BoardGameModel() {
-        BoardInitializer();
-        var index_i=0;
-        for (var row:sub_board) {
-            var index_j=0;
-            for (var cell:row) {
-                board[index_i][index_j] = new ReadOnlyObjectWrapper<Square>(
-                        switch (cell) {
-                            case 1 -> Square.RED;
-                            case 2 -> Square.BLUE;
-                            default -> Square.NONE;
-                        }
-                );
-                index_j++;
+        for (var i = 0; i < BOARD_SIZE; i++) {
+            for (var j = 0; j < BOARD_SIZE; j++) {
+                board[i][j] = new ReadOnlyObjectWrapper<Square>(state.getSquare(BoardState.index(i, j)));
             }
-            index_i++;
         }
+        updateLegalMoves();
         Logger.info("Gameboard succesfully constructed.");
     }
 
+    /**
+     * @return a copy of the headless position behind the board.
+     */
+    public BoardState getState() {
+        return state.copy();
+    }
+
     /**
      *
      * @param i the first index of the board to locate the square.
@@ -87,11 +68,11 @@ public class BoardGameModel {
      * @return a square enum object
      */
     public Square getSquare(Position p) {
-        return board[p.row()][p.col()].get();
+        return state.getSquare(BoardState.index(p));
     }
 
-    private void setSquare(Position p, Square square) {
-        board[p.row()][p.col()].set(square);
+    private void syncSquare(Position p) {
+        board[p.row()][p.col()].set(getSquare(p));
     }
 
     /**
@@ -100,12 +81,70 @@ public class BoardGameModel {
      * @param to which position the piece will move.
      */
     public void move(Position from, Position to) {
-        setSquare(to, getSquare(from));
-        Logger.info("First step of the move succesful.");
-        setSquare(from, Square.NONE);
-        Logger.info("Second step of the move succesful.");
+        state.makeMove(Move.of(from, to));
+        syncSquare(to);
+        syncSquare(from);
+        Logger.debug("Move succesful.");
         gameEnd();
         changePlayer();
+        updateLegalMoves();
+    }
+
+    /**
+     * Takes back the last move.
+     * @throws IllegalStateException if there is no move to undo
+     */
+    public void undo() {
+        sync(state.unmakeMove());
+        Logger.debug("Move undone.");
+    }
+
+    /**
+     * Makes the last move taken back again.
+     * @throws IllegalStateException if there is no move to redo
+     */
+    public void redo() {
+        sync(state.redoMove());
+        Logger.debug("Move redone.");
+    }
+
+    /**
+     * @return true if there is a move to undo.
+     */
+    public boolean canUndo() {
+        return state.canUndo();
+    }
+
+    /**
+     * @return true if there is a move to redo.
+     */
+    public boolean canRedo() {
+        return state.canRedo();
+    }
+
+    private void sync(int move) {
+        syncSquare(BoardState.position(Move.from(move)));
+        syncSquare(BoardState.position(Move.to(move)));
+        changePlayer();
+        updateLegalMoves();
+    }
+
+    private void updateLegalMoves() {
+        Arrays.fill(legalMoves, 0);
+        var count = state.generateMoves(moves);
+        for (var i = 0; i < count; i++) {
+            legalMoves[moves[i] >>> 6] |= 1L << moves[i];
+        }
+    }
+
+    /**
+     * Writes every legal move of the current player into the buffer.
+     * @param buffer the buffer of encoded moves, at least {@link MoveGenerator#MAX_MOVES} long.
+     * @return the number of moves written.
+     * @see Move
+     */
+    public int generateMoves(int[] buffer) {
+        return state.generateMoves(buffer);
     }
 
     /**
@@ -113,15 +152,23 @@ public class BoardGameModel {
      * @return true if the winer has been decided.
      */
     public boolean gameEnd() {
-        boolean end = false;
-        if (winner()) {
-            Logger.info(String.format("%s, has won!", getPlayer()));
-            end=true;
-        } else if (loseConditon()) {
-            Logger.info(String.format("%s, has lost!", getPlayer()));
-            end=true;
+        switch (evaluateTerminal(getPlayer())) {
+            case WIN -> Logger.info(String.format("%s, has won!", getPlayer()));
+            case LOSS -> Logger.info(String.format("%s, has lost!", getPlayer()));
+            default -> {
+                return false;
+            }
         }
-        return end;
+        return true;
+    }
+
+    /**
+     * Evaluates the winning and losing placements for one player.
+     * @param player the player whose outcome is asked.
+     * @return {@code WIN}, {@code LOSS} or {@code ONGOING} for the player.
+     */
+    public Outcome evaluateTerminal(Player player) {
+        return state.evaluateTerminal(player);
     }
 
     /**
@@ -131,24 +178,11 @@ public class BoardGameModel {
      * @return true if the move is possible.
      */
     public boolean canMove(Position from, Position to) {
-        return isOnBoard(from) && isOnBoard(to) && !isEmpty(from) && isEmpty(to) && isLegalMove(from, to)
-                && isCorrectPlayer(from, getPlayer());
-    }
-
-    private boolean isObsacle(Position from, Direction direction, int length) {
-        boolean foundObsacle = false;
-        for (var i=1; i<=length;i++) {
-            var x = from.row() + direction.getRowChange()*i;
-            var y = from.col() + direction.getColChange()*i;
-            if (!isEmpty(new Position(x,y))){
-                foundObsacle=true;
-                Logger.info("Obstacle found in the path.");
-                break;
-            }
-
+        if (!isOnBoard(from) || !isOnBoard(to)) {
+            return false;
         }
-
-        return foundObsacle;
+        var move = Move.of(from, to);
+        return (legalMoves[move >>> 6] & (1L << move)) != 0;
     }
 
     /**
@@ -157,7 +191,7 @@ public class BoardGameModel {
      * @return true if the board is empty at p Position
      */
     public boolean isEmpty(Position p) {
-        return getSquare(p) == Square.NONE;
+        return state.isEmpty(BoardState.index(p));
     }
 
     /**
@@ -177,25 +211,7 @@ public class BoardGameModel {
      * @return true if the move is legal according the game rules
      */
     public boolean isLegalMove(Position from, Position to) {
-        var dx = Math.abs(to.row() - from.row());
-        var dy = Math.abs(to.col() - from.col());
-        Direction direction = Direction.ZERO;
-        int length=0;
-        if (dx!=0) {
-            if (dy!=0) {
-                direction = Direction.of((to.row() - from.row())/dx,(to.col() - from.col())/dy);
-                length=dx;
-            } else {
-                direction = Direction.of((to.row() - from.row())/dx,0);
-                length=dx;
-            }
-        } else if (dy!=0) {
-            direction = Direction.of(0,(to.col() - from.col())/dy);
-            length=dy;
-        }
-
-        Logger.info(direction);
-        return !direction.equals(Direction.ZERO) && !isObsacle(from, direction, length);
+        return state.isLegalMove(BoardState.index(from), BoardState.index(to));
     }
 
     /**
@@ -206,12 +222,8 @@ public class BoardGameModel {
     }
 
     private void changePlayer() {
-        if (getPlayer().equals(Player.PLAYER_1)) {
-            player.set(Player.PLAYER_2);
-        } else {
-            player.set(Player.PLAYER_1);
-        }
-        Logger.info("Players Changed");
+        player.set(state.player());
+        Logger.debug("Players Changed");
     }
 
     /**
@@ -221,132 +233,7 @@ public class BoardGameModel {
      * @return true if the player owns that piece.
      */
     public boolean isCorrectPlayer(Position piece, Player player) {
-        var pieceColor = squareProperty(piece.row(), piece.col()).get();
-        if (player.equals(Player.PLAYER_1) && pieceColor.equals(Square.RED)) {
-            return true;
-        } else if (player.equals(Player.PLAYER_2) && pieceColor.equals(Square.BLUE)) {
-            return true;
-        } else {
-            return false;
-        }
-    }
-
-    private boolean winner() {
-        return winCondition_1(getPlayer()) ||
-                winCondition_2(getPlayer()) ||
-                winCondition_3(getPlayer()) ||
-                winCondition_4(getPlayer());
-    }
-
-    private boolean winCondition_1(Player player) {
-        boolean acceptedRow = false;
-        for (int i=0; i<BOARD_SIZE; i++) {
-            for (int j=0; j<BOARD_SIZE; j++){
-                var position = new Position(i,j);
-                if (!isCorrectPlayer(position, player)) {
-                    acceptedRow = false;
-                    break;
-                } else {
-                    acceptedRow = true;
-                }
-            }
-            if (acceptedRow) {
-                break;
-            }
-        }
-        Logger.info("Evaluating first win condition.");
-        return acceptedRow;
-    }
-    private boolean winCondition_2(Player player) {
-        boolean acceptedCol = false;
-        for (int i=0; i<BOARD_SIZE; i++) {
-            for (int j=0; j<BOARD_SIZE; j++){
-                var position = new Position(j,i);
-                if (!isCorrectPlayer(position, player)) {
-                    acceptedCol = false;
-                    break;
-                } else {
-                    acceptedCol = true;
-                }
-            }
-            if (acceptedCol) {
-                break;
-            }
-        }
-        Logger.info("Evaluating second win condition.");
-        return acceptedCol;
-    }
-    private boolean winCondition_3(Player player) {
-        Logger.info("Evaluating third win condition.");
-        return isCorrectPlayer(new Position(0,0), player) && isCorrectPlayer(new Position(BOARD_SIZE-1,0), player) &&
-                isCorrectPlayer(new Position(0,BOARD_SIZE-1), player) && isCorrectPlayer(new Position(BOARD_SIZE-1,BOARD_SIZE-1), player);
-    }
-    private boolean check2_by_2(Position position, Player player) {
-        var row = position.row();
-        var col = position.col();
-        Logger.info("Evaluating 2by2 grid.");
-        return isCorrectPlayer(position, player) && isCorrectPlayer(new Position(row,col+1), player) &&
-                isCorrectPlayer(new Position(row+1, col), player) && isCorrectPlayer(new Position(row+1,col+1), player);
-    }
-    private boolean winCondition_4(Player player) {
-        boolean acceptedPlacement = false;
-        for (int i=0; i<BOARD_SIZE-1; i++) {
-            for (int j = 0; j < BOARD_SIZE - 1; j++) {
-                if (check2_by_2(new Position(i,j),player)) {
-                    acceptedPlacement=true;
-                    break;
-                }
-            }
-            if (acceptedPlacement) {
-                break;
-            }
-        }
-        Logger.info("Evaluating forth win condition.");
-        return acceptedPlacement;
-    }
-
-    private boolean loseConditon() {
-        return loseCase_1() || loseCase_2() || loseCase_3() || loseCase_4();
-    }
-
-    private boolean loseCase_1() {
-        Position position = new Position(0,0);
-        Player player = getPlayer();
-        var row = position.row();
-        var col = position.col();
-        Logger.info("Evaluating first lose case.");
-        return !isCorrectPlayer(position, player) && isCorrectPlayer(new Position(row,col+1), player) &&
-                isCorrectPlayer(new Position(row+1, col), player) && isCorrectPlayer(new Position(row+1,col+1), player);
-    }
-
-    private boolean loseCase_2() {
-        Position position = new Position(BOARD_SIZE-1,0);
-        Player player = getPlayer();
-        var row = position.row();
-        var col = position.col();
-        Logger.info("Evaluating second lose case.");
-        return !isCorrectPlayer(position, player) && isCorrectPlayer(new Position(row,col+1), player) &&
-                isCorrectPlayer(new Position(row-1, col), player) && isCorrectPlayer(new Position(row-1,col+1), player);
-    }
-
-    private boolean loseCase_3() {
-        Position position = new Position(0,BOARD_SIZE-1);
-        Player player = getPlayer();
-        var row = position.row();
-        var col = position.col();
-        Logger.info("Evaluating third lose case.");
-        return !isCorrectPlayer(position, player) && isCorrectPlayer(new Position(row,col-1), player) &&
-                isCorrectPlayer(new Position(row+1, col), player) && isCorrectPlayer(new Position(row+1,col-1), player);
-    }
-
-    private boolean loseCase_4() {
-        Position position = new Position(BOARD_SIZE-1,BOARD_SIZE-1);
-        Player player = getPlayer();
-        var row = position.row();
-        var col = position.col();
-        Logger.info("Evaluating forth lose case.");
-        return !isCorrectPlayer(position, player) && isCorrectPlayer(new Position(row,col-1), player) &&
-                isCorrectPlayer(new Position(row-1, col), player) && isCorrectPlayer(new Position(row-1,col-1), player);
+        return state.isOwnedBy(BoardState.index(piece), player);
     }
 
     /**
@@ -357,7 +244,7 @@ public class BoardGameModel {
         var sb = new StringBuilder();
         for (var i = 0; i < BOARD_SIZE; i++) {
             for (var j = 0; j < BOARD_SIZE; j++) {
-                sb.append(board[i][j].get().ordinal()).append(' ');
+                sb.append(state.getSquare(BoardState.index(i, j)).ordinal()).append(' ');
             }
             sb.append('\n');
         }
@@ -0,0 +1,321 @@
+package boardgame.model;
+
+import boardgame.model.BoardGameModel.Player;
+
+import java.util.Objects;
+
+/**
+ * Headless representation of a Dao position.
+ * The pieces of each colour are stored in a 16-bit mask, where bit
+ * {@code row * BOARD_SIZE + col} is set if the square holds a piece of that colour.
+ * The class has no JavaFX dependency, so the rules can run on it directly.
+ */
+public final class BoardState {
+
+    /**
+     * Number of squares on the board.
+     */
+    public static final int SQUARES = BoardGameModel.BOARD_SIZE * BoardGameModel.BOARD_SIZE;
+
+    /**
+     * Number of pieces each player owns.
+     */
+    public static final int PIECES = BoardGameModel.BOARD_SIZE;
+
+    /**
+     * Red pieces of the starting position, on the main diagonal.
+     */
+    public static final int INITIAL_RED = 0b1000_0100_0010_0001;
+
+    /**
+     * Blue pieces of the starting position, on the anti-diagonal.
+     */
+    public static final int INITIAL_BLUE = 0b0001_0010_0100_1000;
+
+    /**
+     * Number of moves that can be undone, a power of two.
+     */
+    public static final int DEFAULT_HISTORY = 256;
+
+    private static final int BOARD_MASK = (1 << SQUARES) - 1;
+
+    private int red;
+    private int blue;
+    private Player player;
+
+    private int[] history;
+    private int historyStart;
+    private int undoable;
+    private int redoable;
+
+    /**
+     * Creates the starting position with {@code PLAYER_1} to move.
+     */
+    public BoardState() {
+        this(INITIAL_RED, INITIAL_BLUE, Player.PLAYER_1);
+    }
+
+    /**
+     * Creates a position from the two piece masks.
+     * @param red the mask of the red pieces.
+     * @param blue the mask of the blue pieces.
+     * @param player the player to move.
+     */
+    public BoardState(int red, int blue, Player player) {
+        if ((red & ~BOARD_MASK) != 0 || (blue & ~BOARD_MASK) != 0 || (red & blue) != 0) {
+            throw new IllegalArgumentException("Invalid piece masks.");
+        }
+        this.red = red;
+        this.blue = blue;
+        this.player = Objects.requireNonNull(player);
+    }
+
+    /**
+     * @return an independent copy of this position, without the move history.
+     */
+    public BoardState copy() {
+        return new BoardState(red, blue, player);
+    }
+
+    /**
+     * @return the mask of the red pieces.
+     */
+    public int red() {
+        return red;
+    }
+
+    /**
+     * @return the mask of the blue pieces.
+     */
+    public int blue() {
+        return blue;
+    }
+
+    /**
+     * @return the player to move.
+     */
+    public Player player() {
+        return player;
+    }
+
+    /**
+     * @param player one of the players.
+     * @return the mask of the pieces owned by the player.
+     */
+    public int pieces(Player player) {
+        return player == Player.PLAYER_1 ? red : blue;
+    }
+
+    /**
+     * @return the mask of all the occupied squares.
+     */
+    public int occupied() {
+        return red | blue;
+    }
+
+    /**
+     * @param row the row of the square.
+     * @param col the column of the square.
+     * @return the bit index of the square.
+     */
+    public static int index(int row, int col) {
+        return row * BoardGameModel.BOARD_SIZE + col;
+    }
+
+    /**
+     * @param p the position of the square.
+     * @return the bit index of the square.
+     */
+    public static int index(Position p) {
+        return index(p.row(), p.col());
+    }
+
+    /**
+     * @param index the bit index of a square.
+     * @return the position of the square.
+     */
+    public static Position position(int index) {
+        return new Position(index / BoardGameModel.BOARD_SIZE, index % BoardGameModel.BOARD_SIZE);
+    }
+
+    /**
+     * @param index the bit index of a square.
+     * @return the content of the square.
+     */
+    public Square getSquare(int index) {
+        int bit = 1 << index;
+        if ((red & bit) != 0) {
+            return Square.RED;
+        } else if ((blue & bit) != 0) {
+            return Square.BLUE;
+        }
+        return Square.NONE;
+    }
+
+    /**
+     * @param index the bit index of a square.
+     * @return true if the square is empty.
+     */
+    public boolean isEmpty(int index) {
+        return ((red | blue) & (1 << index)) == 0;
+    }
+
+    /**
+     * @param index the bit index of a square.
+     * @param player one of the players.
+     * @return true if the player owns the piece on the square.
+     */
+    public boolean isOwnedBy(int index, Player player) {
+        return (pieces(player) & (1 << index)) != 0;
+    }
+
+    /**
+     * Checks if the squares are connected by a straight, unobstructed line
+     * and the target square is empty.
+     * @param from the bit index of the start square.
+     * @param to the bit index of the target square.
+     * @return true if a piece could slide from {@code from} to {@code to}.
+     */
+    public boolean isLegalMove(int from, int to) {
+        return (MoveGenerator.targets(red | blue, from) & (1 << to)) != 0;
+    }
+
+    /**
+     * Writes every legal move of the player to move into the buffer.
+     * @param buffer the buffer of encoded moves, at least {@link MoveGenerator#MAX_MOVES} long.
+     * @return the number of moves written.
+     * @see Move
+     */
+    public int generateMoves(int[] buffer) {
+        return MoveGenerator.generate(this, buffer);
+    }
+
+    /**
+     * Makes a move, and records it on the undo stack.
+     * The stack is a ring of fixed capacity, so when it is full the oldest move is forgotten.
+     * Making a move discards the moves that could be redone.
+     * @param move the encoded move, see {@link Move}.
+     */
+    public void makeMove(int move) {
+        if (history == null) {
+            history = new int[DEFAULT_HISTORY];
+        }
+        move(Move.from(move), Move.to(move));
+        history[(historyStart + undoable) & (history.length - 1)] = move;
+        if (undoable == history.length) {
+            historyStart = (historyStart + 1) & (history.length - 1);
+        } else {
+            undoable++;
+        }
+        redoable = 0;
+    }
+
+    /**
+     * Takes back the last move made.
+     * @return the encoded move that was taken back.
+     * @throws IllegalStateException if there is no move to undo
+     */
+    public int unmakeMove() {
+        if (undoable == 0) {
+            throw new IllegalStateException("No move to undo.");
+        }
+        undoable--;
+        redoable++;
+        int move = history[(historyStart + undoable) & (history.length - 1)];
+        move(Move.to(move), Move.from(move));
+        return move;
+    }
+
+    /**
+     * Makes the last move taken back again.
+     * @return the encoded move that was made.
+     * @throws IllegalStateException if there is no move to redo
+     */
+    public int redoMove() {
+        if (redoable == 0) {
+            throw new IllegalStateException("No move to redo.");
+        }
+        int move = history[(historyStart + undoable) & (history.length - 1)];
+        move(Move.from(move), Move.to(move));
+        undoable++;
+        redoable--;
+        return move;
+    }
+
+    /**
+     * @return true if there is a move to undo.
+     */
+    public boolean canUndo() {
+        return undoable > 0;
+    }
+
+    /**
+     * @return true if there is a move to redo.
+     */
+    public boolean canRedo() {
+        return redoable > 0;
+    }
+
+    /**
+     * Evaluates the win and lose placements from the view of one player.
+     * @param player one of the players.
+     * @return the outcome of the position for the player.
+     */
+    public Outcome evaluateTerminal(Player player) {
+        return player == Player.PLAYER_1
+                ? TerminalPatterns.evaluate(red, blue)
+                : TerminalPatterns.evaluate(blue, red);
+    }
+
+    /**
+     * @return true if the game has ended in this position.
+     */
+    public boolean isTerminal() {
+        return TerminalPatterns.evaluate(red, blue) != Outcome.ONGOING;
+    }
+
+    /**
+     * Moves the piece on {@code from} to {@code to}, and passes the turn to the other player.
+     * The legality of the move is not checked, and the move is not recorded for undo.
+     * @param from the bit index of the start square.
+     * @param to the bit index of the target square.
+     */
+    public void move(int from, int to) {
+        int change = (1 << from) | (1 << to);
+        if ((red & (1 << from)) != 0) {
+            red ^= change;
+        } else {
+            blue ^= change;
+        }
+        player = player == Player.PLAYER_1 ? Player.PLAYER_2 : Player.PLAYER_1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BoardState other)) {
+            return false;
+        }
+        return red == other.red && blue == other.blue && player == other.player;
+    }
+
+    @Override
+    public int hashCode() {
+        return (red << 17 | blue << 1 | player.ordinal()) * 0x9E3779B9;
+    }
+
+    /**
+     * toString format for the position.
+     * @return the position in string format
+     */
+    @Override
+    public String toString() {
+        var sb = new StringBuilder();
+        for (var i = 0; i < SQUARES; i++) {
+            sb.append(getSquare(i).ordinal()).append(i % BoardGameModel.BOARD_SIZE == BoardGameModel.BOARD_SIZE - 1 ? '\n' : ' ');
+        }
+        return sb.toString();
+    }
+}
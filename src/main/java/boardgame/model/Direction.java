@@ -51,7 +51,7 @@ public enum Direction {
 
         for (var direction : values()) {
             if (direction.rowChange == rowChange && direction.colChange == colChange) {
-                Logger.info("Direction succesfully fitted.");
+                Logger.debug("Direction succesfully fitted.");
                 return direction;
             }
         }
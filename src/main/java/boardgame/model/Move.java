@@ -0,0 +1,53 @@
+package boardgame.model;
+
+/**
+ * Encodes a move into a single {@code int}, so move lists can be kept in primitive buffers.
+ * The start square is stored in bits 4-7 and the target square in bits 0-3.
+ */
+public final class Move {
+
+    private Move() {
+    }
+
+    /**
+     * @param from the bit index of the start square.
+     * @param to the bit index of the target square.
+     * @return the encoded move.
+     */
+    public static int of(int from, int to) {
+        return from << 4 | to;
+    }
+
+    /**
+     * @param from the start position.
+     * @param to the target position.
+     * @return the encoded move.
+     */
+    public static int of(Position from, Position to) {
+        return of(BoardState.index(from), BoardState.index(to));
+    }
+
+    /**
+     * @param move an encoded move.
+     * @return the bit index of the start square.
+     */
+    public static int from(int move) {
+        return move >>> 4 & 0xF;
+    }
+
+    /**
+     * @param move an encoded move.
+     * @return the bit index of the target square.
+     */
+    public static int to(int move) {
+        return move & 0xF;
+    }
+
+    /**
+     * @param move an encoded move.
+     * @return the move in {@code (row,col)->(row,col)} format.
+     */
+    public static String toString(int move) {
+        return BoardState.position(from(move)) + "->" + BoardState.position(to(move));
+    }
+}
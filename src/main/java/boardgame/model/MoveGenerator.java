@@ -0,0 +1,92 @@
+package boardgame.model;
+
+import java.util.Arrays;
+
+/**
+ * Generates the legal moves of a position from precomputed sliding rays.
+ * A piece can slide any distance along a row, a column or a diagonal,
+ * as long as every square on the way, and the target, is empty.
+ */
+public final class MoveGenerator {
+
+    private static final int SIZE = BoardGameModel.BOARD_SIZE;
+
+    private static final int DIRECTIONS = Direction.values().length - 1;
+
+    private static final int[][][] RAYS = new int[BoardState.SQUARES][DIRECTIONS][];
+
+    /**
+     * Upper bound of the number of legal moves in any position.
+     */
+    public static final int MAX_MOVES;
+
+    static {
+        int longest = 0;
+        for (int square = 0; square < BoardState.SQUARES; square++) {
+            int reachable = 0;
+            int d = 0;
+            for (var direction : Direction.values()) {
+                if (direction == Direction.ZERO) {
+                    continue;
+                }
+                int row = square / SIZE + direction.getRowChange();
+                int col = square % SIZE + direction.getColChange();
+                int length = 0;
+                int[] ray = new int[SIZE - 1];
+                while (BoardGameModel.isOnBoard(new Position(row, col))) {
+                    ray[length++] = BoardState.index(row, col);
+                    row += direction.getRowChange();
+                    col += direction.getColChange();
+                }
+                RAYS[square][d++] = Arrays.copyOf(ray, length);
+                reachable += length;
+            }
+            longest = Math.max(longest, reachable);
+        }
+        MAX_MOVES = BoardState.PIECES * longest;
+    }
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * @param occupied the mask of the occupied squares.
+     * @param from the bit index of the moving piece.
+     * @return the mask of the squares the piece can slide to.
+     */
+    public static int targets(int occupied, int from) {
+        int targets = 0;
+        for (int[] ray : RAYS[from]) {
+            for (int square : ray) {
+                int bit = 1 << square;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                targets |= bit;
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Writes every legal move of the player to move into the buffer.
+     * A finished game has no legal moves.
+     * @param state the position.
+     * @param buffer the buffer of encoded moves, at least {@link #MAX_MOVES} long.
+     * @return the number of moves written.
+     */
+    public static int generate(BoardState state, int[] buffer) {
+        if (state.isTerminal()) {
+            return 0;
+        }
+        int occupied = state.occupied();
+        int count = 0;
+        for (int pieces = state.pieces(state.player()); pieces != 0; pieces &= pieces - 1) {
+            int from = Integer.numberOfTrailingZeros(pieces);
+            for (int targets = targets(occupied, from); targets != 0; targets &= targets - 1) {
+                buffer[count++] = Move.of(from, Integer.numberOfTrailingZeros(targets));
+            }
+        }
+        return count;
+    }
+}
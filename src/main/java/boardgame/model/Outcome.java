@@ -0,0 +1,10 @@
+package boardgame.model;
+
+/**
+ * Represents the state of the game from the view of one player.
+ */
+public enum Outcome {
+    ONGOING,
+    WIN,
+    LOSS
+}
@@ -0,0 +1,190 @@
+package boardgame.model;
+
+import boardgame.model.BoardGameModel.Player;
+
+/**
+ * Canonical forms of positions under the symmetries of the game.
+ * The rules do not change under the 8 rotations and reflections of the board,
+ * nor when the colours are swapped together with the player to move,
+ * which gives 16 transforms. Transforms {@code 0-7} are the dihedral ones,
+ * and {@code 8-15} are the same followed by the colour swap.
+ *
+ * <p>A canonical form is packed into a {@code long}: the transform in bits 40-43,
+ * and the transformed position in bits 0-33 as {@code red << 17 | blue << 1 | player}.
+ * The lower bits alone are the canonical key of the position.</p>
+ */
+public final class Symmetry {
+
+    /**
+     * Number of transforms.
+     */
+    public static final int TRANSFORMS = 16;
+
+    private static final int DIHEDRAL = 8;
+
+    private static final int SIZE = BoardGameModel.BOARD_SIZE;
+
+    private static final int[][] SQUARES = new int[DIHEDRAL][BoardState.SQUARES];
+    private static final int[][] LOW = new int[DIHEDRAL][256];
+    private static final int[][] HIGH = new int[DIHEDRAL][256];
+    private static final int[] INVERSE = new int[DIHEDRAL];
+
+    private static final long KEY_MASK = (1L << 34) - 1;
+
+    static {
+        for (int t = 0; t < DIHEDRAL; t++) {
+            for (int square = 0; square < BoardState.SQUARES; square++) {
+                int row = square / SIZE;
+                int col = square % SIZE;
+                for (int r = 0; r < t % 4; r++) {
+                    int rotated = col;
+                    col = SIZE - 1 - row;
+                    row = rotated;
+                }
+                if (t >= 4) {
+                    col = SIZE - 1 - col;
+                }
+                SQUARES[t][square] = BoardState.index(row, col);
+            }
+            for (int b = 0; b < 256; b++) {
+                LOW[t][b] = map(SQUARES[t], b, 0);
+                HIGH[t][b] = map(SQUARES[t], b, 8);
+            }
+        }
+        for (int t = 0; t < DIHEDRAL; t++) {
+            for (int u = 0; u < DIHEDRAL; u++) {
+                if (SQUARES[u][SQUARES[t][1]] == 1 && SQUARES[u][SQUARES[t][SIZE]] == SIZE) {
+                    INVERSE[t] = u;
+                }
+            }
+        }
+    }
+
+    private Symmetry() {
+    }
+
+    private static int map(int[] squares, int bits, int offset) {
+        int mask = 0;
+        for (int bit = 0; bit < 8; bit++) {
+            if ((bits & (1 << bit)) != 0) {
+                mask |= 1 << squares[offset + bit];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @param mask a mask of squares.
+     * @param transform a transform in {@code [0, TRANSFORMS)}.
+     * @return the mask of the transformed squares; the colour swap is ignored.
+     */
+    public static int transformMask(int mask, int transform) {
+        int t = transform % DIHEDRAL;
+        return LOW[t][mask & 0xFF] | HIGH[t][mask >>> 8 & 0xFF];
+    }
+
+    /**
+     * @param square the bit index of a square.
+     * @param transform a transform in {@code [0, TRANSFORMS)}.
+     * @return the bit index of the transformed square.
+     */
+    public static int transformSquare(int square, int transform) {
+        return SQUARES[transform % DIHEDRAL][square];
+    }
+
+    /**
+     * @param move an encoded move.
+     * @param transform a transform in {@code [0, TRANSFORMS)}.
+     * @return the encoded move on the transformed board.
+     */
+    public static int transformMove(int move, int transform) {
+        return Move.of(transformSquare(Move.from(move), transform), transformSquare(Move.to(move), transform));
+    }
+
+    /**
+     * @param transform a transform in {@code [0, TRANSFORMS)}.
+     * @return the transform that undoes it.
+     */
+    public static int inverse(int transform) {
+        return INVERSE[transform % DIHEDRAL] + (transform & DIHEDRAL);
+    }
+
+    /**
+     * @param state a position.
+     * @param transform a transform in {@code [0, TRANSFORMS)}.
+     * @return the transformed position.
+     */
+    public static BoardState transform(BoardState state, int transform) {
+        int red = transformMask(state.red(), transform);
+        int blue = transformMask(state.blue(), transform);
+        if (transform >= DIHEDRAL) {
+            return new BoardState(blue, red, opponent(state.player()));
+        }
+        return new BoardState(red, blue, state.player());
+    }
+
+    /**
+     * Finds the transform giving the smallest key.
+     * @param red the mask of the red pieces.
+     * @param blue the mask of the blue pieces.
+     * @param player the player to move.
+     * @return the packed canonical form.
+     */
+    public static long canonicalize(int red, int blue, Player player) {
+        int side = player.ordinal();
+        long best = Long.MAX_VALUE;
+        int bestTransform = 0;
+        for (int t = 0; t < DIHEDRAL; t++) {
+            int r = LOW[t][red & 0xFF] | HIGH[t][red >>> 8 & 0xFF];
+            int b = LOW[t][blue & 0xFF] | HIGH[t][blue >>> 8 & 0xFF];
+            long key = (long) r << 17 | (long) b << 1 | side;
+            if (key < best) {
+                best = key;
+                bestTransform = t;
+            }
+            long swapped = (long) b << 17 | (long) r << 1 | (side ^ 1);
+            if (swapped < best) {
+                best = swapped;
+                bestTransform = t + DIHEDRAL;
+            }
+        }
+        return (long) bestTransform << 40 | best;
+    }
+
+    /**
+     * @param state a position.
+     * @return the packed canonical form.
+     */
+    public static long canonicalize(BoardState state) {
+        return canonicalize(state.red(), state.blue(), state.player());
+    }
+
+    /**
+     * @param canonical a packed canonical form.
+     * @return the key shared by all the symmetric positions.
+     */
+    public static long key(long canonical) {
+        return canonical & KEY_MASK;
+    }
+
+    /**
+     * @param canonical a packed canonical form.
+     * @return the transform mapping the original position to the canonical one.
+     */
+    public static int transform(long canonical) {
+        return (int) (canonical >>> 40) & (TRANSFORMS - 1);
+    }
+
+    /**
+     * @param canonical a packed canonical form.
+     * @return the canonical position.
+     */
+    public static BoardState state(long canonical) {
+        return new BoardState((int) (canonical >>> 17) & 0xFFFF, (int) (canonical >>> 1) & 0xFFFF,
+                Player.values()[(int) canonical & 1]);
+    }
+
+    private static Player opponent(Player player) {
+        return player == Player.PLAYER_1 ? Player.PLAYER_2 : Player.PLAYER_1;
+    }
+}
@@ -0,0 +1,119 @@
+package boardgame.model;
+
+/**
+ * Precomputed masks of the winning and losing placements.
+ * A player wins with all four pieces in a row, in a column, on the corners,
+ * or in a 2x2 block. A player loses by trapping an enemy piece in a corner with
+ * its own pieces on the three neighbouring squares.
+ */
+public final class TerminalPatterns {
+
+    private static final int SIZE = BoardGameModel.BOARD_SIZE;
+
+    private static final int[] WIN_MASKS = createWinMasks();
+
+    private static final int[] CORNER_MASKS = new int[4];
+
+    private static final int[] TRAP_MASKS = new int[4];
+
+    static {
+        int[] corners = {BoardState.index(0, 0), BoardState.index(0, SIZE - 1),
+                BoardState.index(SIZE - 1, 0), BoardState.index(SIZE - 1, SIZE - 1)};
+        for (int i = 0; i < corners.length; i++) {
+            int row = corners[i] / SIZE;
+            int col = corners[i] % SIZE;
+            int rowStep = row == 0 ? 1 : -1;
+            int colStep = col == 0 ? 1 : -1;
+            CORNER_MASKS[i] = 1 << corners[i];
+            TRAP_MASKS[i] = 1 << BoardState.index(row + rowStep, col)
+                    | 1 << BoardState.index(row, col + colStep)
+                    | 1 << BoardState.index(row + rowStep, col + colStep);
+        }
+    }
+
+    private TerminalPatterns() {
+    }
+
+    private static int[] createWinMasks() {
+        int[] masks = new int[SIZE + SIZE + 1 + (SIZE - 1) * (SIZE - 1)];
+        int n = 0;
+        for (int i = 0; i < SIZE; i++) {
+            int row = 0;
+            int col = 0;
+            for (int j = 0; j < SIZE; j++) {
+                row |= 1 << BoardState.index(i, j);
+                col |= 1 << BoardState.index(j, i);
+            }
+            masks[n++] = row;
+            masks[n++] = col;
+        }
+        masks[n++] = 1 << BoardState.index(0, 0) | 1 << BoardState.index(0, SIZE - 1)
+                | 1 << BoardState.index(SIZE - 1, 0) | 1 << BoardState.index(SIZE - 1, SIZE - 1);
+        for (int i = 0; i < SIZE - 1; i++) {
+            for (int j = 0; j < SIZE - 1; j++) {
+                masks[n++] = 1 << BoardState.index(i, j) | 1 << BoardState.index(i, j + 1)
+                        | 1 << BoardState.index(i + 1, j) | 1 << BoardState.index(i + 1, j + 1);
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * @return the number of winning placements.
+     */
+    public static int winPatternCount() {
+        return WIN_MASKS.length;
+    }
+
+    /**
+     * @param i the index of the placement, {@code 0 <= i < winPatternCount()}.
+     * @return the mask of the winning placement.
+     */
+    public static int winPattern(int i) {
+        return WIN_MASKS[i];
+    }
+
+    /**
+     * @param pieces the mask of one player's pieces.
+     * @return true if the pieces form a winning placement.
+     */
+    public static boolean isWin(int pieces) {
+        for (int mask : WIN_MASKS) {
+            if (pieces == mask) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param pieces the mask of one player's pieces.
+     * @param enemy the mask of the other player's pieces.
+     * @return true if {@code pieces} trap an enemy piece in a corner.
+     */
+    public static boolean isTrap(int pieces, int enemy) {
+        for (int i = 0; i < CORNER_MASKS.length; i++) {
+            if ((enemy & CORNER_MASKS[i]) != 0 && (pieces & TRAP_MASKS[i]) == TRAP_MASKS[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evaluates the position from the view of one player.
+     * @param own the mask of the player's pieces.
+     * @param enemy the mask of the other player's pieces.
+     * @return the outcome for the owner of {@code own}.
+     */
+    public static Outcome evaluate(int own, int enemy) {
+        if (isWin(own)) {
+            return Outcome.WIN;
+        } else if (isTrap(own, enemy) || isWin(enemy)) {
+            return Outcome.LOSS;
+        } else if (isTrap(enemy, own)) {
+            return Outcome.WIN;
+        }
+        return Outcome.ONGOING;
+    }
+}
@@ -0,0 +1,252 @@
+package boardgame.result;
+
+import lombok.NonNull;
+import org.tinylog.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Implements the GameResultManager interface with fixed-width binary records in a memory-mapped file.
+ * Player names are stored once, in a {@code .names} dictionary file next to the records,
+ * and the records refer to them by their line number.
+ *
+ * <p>The record file starts with a 16 byte header: a magic number, the format version,
+ * and the number of committed records. Every record takes 24 bytes:</p>
+ * <pre>
+ * int   player1 id
+ * int   player2 id
+ * int   winner id
+ * short moves
+ * short offset of the start time from UTC, in minutes
+ * long  start time, in milliseconds since the epoch
+ * </pre>
+ * <p>New names and records are forced to the disk before the header count is raised, so
+ * neither a crash of the process nor one of the operating system exposes a half-written record.</p>
+ */
+public class BinaryGameResultManager implements GameResultManager, Closeable {
+
+    private static final int MAGIC = 0x44414F52;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int COUNT_OFFSET = 8;
+    private static final int RECORD_BYTES = 24;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Path filePath;
+    private final Path namesPath;
+    private final FileChannel channel;
+    private final FileChannel namesChannel;
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private MappedByteBuffer buffer;
+    private int count;
+
+    /**
+     * The records committed at one moment, with the names they refer to.
+     */
+    private record View(MappedByteBuffer source, String[] dictionary, int count) {
+    }
+
+    /**
+     * Opens or creates a record file and its dictionary.
+     * @param filePath the record file.
+     * @throws IOException if the files cannot be opened, or are not in this format
+     */
+    public BinaryGameResultManager(@NonNull Path filePath) throws IOException {
+        this.filePath = filePath;
+        this.namesPath = filePath.resolveSibling(filePath.getFileName() + ".names");
+        if (Files.exists(namesPath)) {
+            for (var name : Files.readAllLines(namesPath, StandardCharsets.UTF_8)) {
+                ids.put(name, names.size());
+                names.add(name);
+            }
+        }
+        namesChannel = FileChannel.open(namesPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                map(INITIAL_CAPACITY);
+                buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(COUNT_OFFSET, 0);
+            } else {
+                map((int) ((channel.size() - HEADER_BYTES) / RECORD_BYTES));
+                if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                    throw new IOException("Not a game result file: " + filePath);
+                }
+                count = (int) buffer.getLong(COUNT_OFFSET);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        Logger.info("Opened {} binary game results.", count);
+    }
+
+    private void map(int capacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * RECORD_BYTES);
+    }
+
+    private int capacity() {
+        return (buffer.capacity() - HEADER_BYTES) / RECORD_BYTES;
+    }
+
+    private int id(String name) throws IOException {
+        var id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        var line = StandardCharsets.UTF_8.encode(name + "\n");
+        while (line.hasRemaining()) {
+            namesChannel.write(line);
+        }
+        ids.put(name, names.size());
+        names.add(name);
+        return names.size() - 1;
+    }
+
+    private static void validate(String name) {
+        if (name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Player names cannot contain line breaks.");
+        }
+    }
+
+    private synchronized View view() {
+        return new View(buffer, names.toArray(String[]::new), count);
+    }
+
+    @Override
+    public void add(@NonNull GameResult result) throws IOException {
+        addAll(List.of(result));
+    }
+
+    /**
+     * Checks the whole batch before writing any of it, so a rejected batch leaves no names or records behind.
+     */
+    @Override
+    public synchronized void addAll(@NonNull Collection<GameResult> results) throws IOException {
+        for (var result : results) {
+            if (result.getMoves() < 0 || result.getMoves() > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Move count out of range.");
+            }
+            validate(result.getPlayer1Name());
+            validate(result.getPlayer2Name());
+            validate(result.getWinnerName());
+        }
+        if (count + results.size() > capacity()) {
+            map(Math.max(capacity() * 2, count + results.size()));
+        }
+        var target = buffer;
+        int position = count;
+        int knownNames = names.size();
+        for (var result : results) {
+            var start = result.getStartDateTime();
+            int offset = HEADER_BYTES + position * RECORD_BYTES;
+            target.putInt(offset, id(result.getPlayer1Name()))
+                    .putInt(offset + 4, id(result.getPlayer2Name()))
+                    .putInt(offset + 8, id(result.getWinnerName()))
+                    .putShort(offset + 12, (short) result.getMoves())
+                    .putShort(offset + 14, (short) (start.getOffset().getTotalSeconds() / 60))
+                    .putLong(offset + 16, start.toInstant().toEpochMilli());
+            position++;
+        }
+        if (names.size() > knownNames) {
+            namesChannel.force(false);
+        }
+        int from = HEADER_BYTES + count * RECORD_BYTES;
+        target.force(from, (position - count) * RECORD_BYTES);
+        target.putLong(COUNT_OFFSET, position);
+        count = position;
+    }
+
+    @Override
+    public List<GameResult> getAll() throws IOException {
+        try (var results = stream()) {
+            return new ArrayList<>(results.toList());
+        }
+    }
+
+    /**
+     * Streams the records committed when the stream is created.
+     * The stream reads the mapped file directly. It is sequential, but it splits evenly by record
+     * ranges, so it runs well in parallel.
+     */
+    @Override
+    public Stream<GameResult> stream() {
+        var view = view();
+        return IntStream.range(0, view.count()).mapToObj(i -> read(view.source(), view.dictionary(), i));
+    }
+
+    private static GameResult read(MappedByteBuffer source, String[] dictionary, int index) {
+        int offset = HEADER_BYTES + index * RECORD_BYTES;
+        var zone = ZoneOffset.ofTotalSeconds(source.getShort(offset + 14) * 60);
+        return new GameResult(
+                dictionary[source.getInt(offset)],
+                dictionary[source.getInt(offset + 4)],
+                dictionary[source.getInt(offset + 8)],
+                source.getShort(offset + 12),
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(source.getLong(offset + 16)), zone));
+    }
+
+    /**
+     * Counts the wins by dictionary id, without creating any GameResult.
+     */
+    @Override
+    public List<PlayerStatistics> getBestPlayers(int limit) {
+        var view = view();
+        var source = view.source();
+        var dictionary = view.dictionary();
+        var wins = new long[dictionary.length];
+        for (int i = 0; i < view.count(); i++) {
+            wins[source.getInt(HEADER_BYTES + i * RECORD_BYTES + 8)]++;
+        }
+        return IntStream.range(0, wins.length)
+                .filter(id -> wins[id] > 0)
+                .boxed()
+                .sorted(Comparator.comparingLong((Integer id) -> wins[id]).reversed()
+                        .thenComparing(id -> dictionary[id]))
+                .limit(limit)
+                .map(id -> new PlayerStatistics(dictionary[id], wins[id]))
+                .toList();
+    }
+
+    /**
+     * @return the number of stored results.
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Forces the records and the dictionary to the disk, and closes the files.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        if (buffer != null) {
+            buffer.force();
+        }
+        namesChannel.force(false);
+        namesChannel.close();
+        channel.close();
+    }
+}
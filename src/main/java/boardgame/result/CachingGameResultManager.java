@@ -0,0 +1,334 @@
+package boardgame.result;
+
+import lombok.NonNull;
+import org.tinylog.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Decorates a GameResultManager with an in-memory cache of the results and of the aggregates
+ * computed from them, such as the best players.
+ * The cache is checked against the size and modification time of the results file on every read,
+ * so changes made behind the manager's back are picked up. Aggregates are also evicted when they
+ * are older than the time to live, or when there are more of them than the capacity, least
+ * recently used first.
+ *
+ * <p>The results are held in a {@link ResultLog}, so every read gets an immutable snapshot
+ * without locking, and writes publish their results to later readers all at once.
+ * Aggregates are cached with the snapshot they were computed from, and computed without
+ * holding any lock, so a slow aggregate delays neither the readers nor the writers.</p>
+ */
+public class CachingGameResultManager implements GameResultManager, Closeable {
+
+    /**
+     * Number of aggregates kept by default.
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Time to live of an aggregate by default.
+     */
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(1);
+
+    private record Cached(Object value, long created) {
+    }
+
+    /**
+     * The cache of one state of the results file: its size and modification time, the results
+     * once they are loaded, and the aggregates computed from them. A write or a change of the file
+     * publishes a new view, so the aggregates of the old one are never served again.
+     */
+    private record View(FileStamp stamp, ResultLog.Snapshot results, Map<String, Cached> aggregates) {
+    }
+
+    private final GameResultManager delegate;
+    private final Path filePath;
+    private final int capacity;
+    private final long timeToLive;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final ResultLog results = new ResultLog();
+    private volatile View view;
+    private volatile boolean writing;
+
+    /**
+     * @param delegate the manager storing the results.
+     * @param filePath the file in which the delegate stores the results.
+     * @param capacity the number of aggregates kept.
+     * @param timeToLive the time after which an aggregate is computed again.
+     */
+    public CachingGameResultManager(@NonNull GameResultManager delegate, @NonNull Path filePath,
+                                    int capacity, @NonNull Duration timeToLive) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive.");
+        }
+        this.delegate = delegate;
+        this.filePath = filePath;
+        this.capacity = capacity;
+        this.timeToLive = timeToLive.toNanos();
+    }
+
+    /**
+     * Creates a cache with the default capacity and time to live.
+     * @param delegate the manager storing the results.
+     * @param filePath the file in which the delegate stores the results.
+     */
+    public CachingGameResultManager(@NonNull GameResultManager delegate, @NonNull Path filePath) {
+        this(delegate, filePath, DEFAULT_CAPACITY, DEFAULT_TIME_TO_LIVE);
+    }
+
+    @FunctionalInterface
+    private interface Loader<T> {
+        T load() throws IOException;
+    }
+
+    private View newView(FileStamp stamp, ResultLog.Snapshot loaded) {
+        return new View(stamp, loaded, new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * Returns the view of the results file as it is now.
+     * While the file has not changed behind the manager's back, or while this manager is writing it,
+     * the view is taken without locking; otherwise a new, empty view is published.
+     */
+    private View current() throws IOException {
+        var current = view;
+        if (current != null && (writing || FileStamp.of(filePath).equals(current.stamp()))) {
+            return current;
+        }
+        synchronized (this) {
+            var stamp = FileStamp.of(filePath);
+            if (view == null || !stamp.equals(view.stamp())) {
+                if (view != null) {
+                    Logger.debug("Results file changed, dropping the cache.");
+                }
+                results.clear();
+                view = newView(stamp, null);
+            }
+            return view;
+        }
+    }
+
+    /**
+     * Returns the results of the current view, loading them from the delegate if needed.
+     */
+    private ResultLog.Snapshot load() throws IOException {
+        var current = current();
+        if (current.results() != null) {
+            return current.results();
+        }
+        synchronized (this) {
+            current = current();
+            if (current.results() == null) {
+                results.clear();
+                try (var loaded = delegate.stream()) {
+                    results.append(loaded);
+                }
+                current = new View(current.stamp(), results.snapshot(), current.aggregates());
+                view = current;
+            }
+            return current.results();
+        }
+    }
+
+    /**
+     * Returns a consistent, immutable view of the results.
+     * While the results file has not changed behind the manager's back, the view is taken without
+     * locking, so readers neither wait for writers nor block them; a view taken during a write
+     * simply does not contain the results being written.
+     * @return the snapshot of the results
+     * @throws IOException if the results cannot be read
+     */
+    public List<GameResult> snapshot() throws IOException {
+        var current = current();
+        if (current.results() != null) {
+            hits.increment();
+            return current.results();
+        }
+        misses.increment();
+        return load();
+    }
+
+    /**
+     * Looks the aggregate up in the current view, and computes it without holding any lock if it is
+     * missing or expired. The value is cached in the view it was looked up in, so a value computed
+     * while the results change is dropped with that view.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String key, Loader<? extends T> loader) throws IOException {
+        var aggregates = current().aggregates();
+        Cached cached;
+        synchronized (aggregates) {
+            cached = aggregates.get(key);
+        }
+        if (cached != null && System.nanoTime() - cached.created() < timeToLive) {
+            hits.increment();
+            return (T) cached.value();
+        }
+        misses.increment();
+        T value = loader.load();
+        synchronized (aggregates) {
+            aggregates.put(key, new Cached(value, System.nanoTime()));
+        }
+        return value;
+    }
+
+    @Override
+    public void add(@NonNull GameResult result) throws IOException {
+        addAll(List.of(result));
+    }
+
+    /**
+     * Writes through to the delegate, and appends to the cached results instead of dropping them.
+     * The write holds the {@link ResultFileLock} of the results file but not the monitor of the cache,
+     * so readers go on reading the view from before the write. The appended results are then
+     * published to readers in one step, in a new view stamped within the same file lock,
+     * so the results of other processes are never taken for its own.
+     */
+    @Override
+    public void addAll(@NonNull Collection<GameResult> added) throws IOException {
+        ResultFileLock.withLock(filePath, () -> {
+            var before = current();
+            writing = true;
+            try {
+                delegate.addAll(added);
+                publish(before, added);
+            } finally {
+                writing = false;
+            }
+            return null;
+        });
+    }
+
+    private synchronized void publish(View before, Collection<GameResult> added) throws IOException {
+        if (view != before) {
+            view = null;
+            results.clear();
+        } else if (before.results() == null) {
+            view = newView(FileStamp.of(filePath), null);
+        } else {
+            results.append(added);
+            view = newView(FileStamp.of(filePath), results.snapshot());
+        }
+    }
+
+    @Override
+    public List<GameResult> getAll() throws IOException {
+        return new ArrayList<>(snapshot());
+    }
+
+    @Override
+    public Stream<GameResult> stream() throws IOException {
+        return snapshot().stream();
+    }
+
+    @Override
+    public Stream<GameResult> findByPlayer(String name) throws IOException {
+        return delegate.findByPlayer(name);
+    }
+
+    @Override
+    public Stream<GameResult> findByWinner(String name) throws IOException {
+        return delegate.findByWinner(name);
+    }
+
+    @Override
+    public Stream<GameResult> findByStartTime(ZonedDateTime from, ZonedDateTime to) throws IOException {
+        return delegate.findByStartTime(from, to);
+    }
+
+    /**
+     * Returns a cached aggregate, computing it from the results if it is missing, expired,
+     * or the results have changed.
+     * @param key the key identifying the aggregate, including its parameters.
+     * @param function computes the aggregate from the results.
+     * @param <T> the type of the aggregate.
+     * @return the aggregate
+     * @throws IOException if the results cannot be read
+     */
+    public <T> T aggregate(@NonNull String key, @NonNull Function<? super List<GameResult>, ? extends T> function)
+            throws IOException {
+        return cached(key, () -> function.apply(load()));
+    }
+
+    /**
+     * Asks the delegate, which may answer from an index, and caches the answer.
+     */
+    @Override
+    public List<PlayerStatistics> getBestPlayers(int limit) throws IOException {
+        return cached("bestPlayers:" + limit, () -> delegate.getBestPlayers(limit));
+    }
+
+    /**
+     * Computes the statistics of every player once from the cached results, and answers every limit from them.
+     */
+    @Override
+    public List<PlayerStatistics> getPlayerStatistics(int limit) throws IOException {
+        List<PlayerStatistics> all = cached("playerStatistics", () -> GameResultManager.super.getPlayerStatistics(Integer.MAX_VALUE));
+        return all.subList(0, Math.min(limit, all.size()));
+    }
+
+    /**
+     * Asks the delegate, which may keep the ratings up to date, and caches the answer.
+     */
+    @Override
+    public Map<String, RatingEngine.Rating> getRatings() throws IOException {
+        return cached("ratings", delegate::getRatings);
+    }
+
+    @Override
+    public List<PlayerStatistics> getTopRatedPlayers(int limit) throws IOException {
+        List<PlayerStatistics> all = cached("topRated", () -> GameResultManager.super.getTopRatedPlayers(Integer.MAX_VALUE));
+        return all.subList(0, Math.min(limit, all.size()));
+    }
+
+    /**
+     * @return the number of reads answered from the cache.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of reads that went to the delegate.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Drops the cached results and aggregates.
+     */
+    public synchronized void invalidate() {
+        view = null;
+        results.clear();
+    }
+
+    /**
+     * Closes the delegate if it is closeable.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        invalidate();
+        if (delegate instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package boardgame.result;
+
+import lombok.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Decorates a GameResultManager with state derived from the results, such as an index,
+ * checkpointed in a file next to the results file together with the {@link FileStamp} of the
+ * results file it reflects.
+ * The state is loaded from the checkpoint, or rebuilt from the results, only when the results file
+ * changed behind the manager's back. Writes hold the {@link ResultFileLock} of the results file
+ * from the check of the state to the stamp taken after the write, so a result appended by another
+ * process in between can never be mistaken for one of the manager's own.
+ */
+abstract class CheckpointedGameResultManager implements GameResultManager, Closeable {
+
+    protected final GameResultManager delegate;
+    protected final Path filePath;
+    protected final Path checkpointPath;
+    private FileStamp known = FileStamp.UNKNOWN;
+    private boolean dirty;
+
+    /**
+     * Subclasses call {@link #refresh()} at the end of their constructor, to load the state.
+     * @param delegate the manager storing the results.
+     * @param filePath the file in which the delegate stores the results.
+     * @param extension the extension appended to the name of the results file to name the checkpoint.
+     */
+    protected CheckpointedGameResultManager(@NonNull GameResultManager delegate, @NonNull Path filePath,
+                                            @NonNull String extension) {
+        this.delegate = delegate;
+        this.filePath = filePath;
+        this.checkpointPath = filePath.resolveSibling(filePath.getFileName() + extension);
+    }
+
+    /**
+     * Loads the state from the checkpoint.
+     * @param stamp the current stamp of the results file.
+     * @return true if the state was loaded, false if the checkpoint is missing, unreadable or out of date.
+     */
+    protected abstract boolean load(FileStamp stamp);
+
+    /**
+     * Derives the state from all the results of the delegate.
+     * @throws IOException if the results cannot be read
+     */
+    protected abstract void rebuild() throws IOException;
+
+    /**
+     * Updates the state with results the delegate has just stored.
+     * @param results the stored results.
+     * @throws IOException if the results cannot be read
+     */
+    protected abstract void record(Collection<GameResult> results) throws IOException;
+
+    /**
+     * Writes the checkpoint.
+     * @param stamp the stamp of the results file the state reflects.
+     * @throws IOException if any I/O error occurs
+     */
+    protected abstract void save(FileStamp stamp) throws IOException;
+
+    /**
+     * Brings the state up to date, if the results file changed since it was last stamped.
+     * @throws IOException if the results cannot be read
+     */
+    protected final synchronized void refresh() throws IOException {
+        var current = FileStamp.of(filePath);
+        if (current.equals(known)) {
+            return;
+        }
+        if (!load(current)) {
+            rebuild();
+            save(current);
+        }
+        known = current;
+        dirty = false;
+    }
+
+    @Override
+    public void add(@NonNull GameResult result) throws IOException {
+        addAll(List.of(result));
+    }
+
+    @Override
+    public void addAll(@NonNull Collection<GameResult> results) throws IOException {
+        ResultFileLock.withLock(filePath, () -> {
+            synchronized (this) {
+                refresh();
+                delegate.addAll(results);
+                record(results);
+                known = FileStamp.of(filePath);
+                dirty = true;
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public List<GameResult> getAll() throws IOException {
+        return delegate.getAll();
+    }
+
+    @Override
+    public Stream<GameResult> stream() throws IOException {
+        return delegate.stream();
+    }
+
+    @Override
+    public Stream<GameResult> findByPlayer(String name) throws IOException {
+        return delegate.findByPlayer(name);
+    }
+
+    @Override
+    public Stream<GameResult> findByWinner(String name) throws IOException {
+        return delegate.findByWinner(name);
+    }
+
+    @Override
+    public Stream<GameResult> findByStartTime(ZonedDateTime from, ZonedDateTime to) throws IOException {
+        return delegate.findByStartTime(from, to);
+    }
+
+    /**
+     * Saves the checkpoint, if results were added since it was last saved.
+     * @throws IOException if any I/O error occurs
+     */
+    public synchronized void flush() throws IOException {
+        if (dirty) {
+            save(known);
+            dirty = false;
+        }
+    }
+
+    /**
+     * Saves the checkpoint, and closes the delegate if it is closeable.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        if (delegate instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package boardgame.result;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+/**
+ * The size and modification time of a results file, by which the decorators keeping state derived
+ * from the results tell whether the file changed behind their back.
+ * A stamp only describes the writes it covers if it is taken while the {@link ResultFileLock}
+ * of the file is still held by the writer.
+ * @param size the size of the file in bytes, zero if it does not exist.
+ * @param modified the modification time of the file in milliseconds, zero if it does not exist.
+ */
+record FileStamp(long size, long modified) {
+
+    /**
+     * A stamp no file has, for state not derived from the file yet.
+     */
+    static final FileStamp UNKNOWN = new FileStamp(-1, -1);
+
+    /**
+     * @param filePath the results file.
+     * @return the current stamp of the file
+     * @throws IOException if the attributes of the file cannot be read
+     */
+    static FileStamp of(Path filePath) throws IOException {
+        try {
+            return new FileStamp(Files.size(filePath), Files.getLastModifiedTime(filePath).toMillis());
+        } catch (NoSuchFileException e) {
+            return new FileStamp(0, 0);
+        }
+    }
+}
@@ -1,23 +1,25 @@
 package boardgame.result;
 
 import lombok.*;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.ZonedDateTime;
 
 /**
  * Represents a game result format.
+ * Results are immutable, so the caches and indexes may share them between threads.
  */
-@Data
-@NoArgsConstructor
+@Value
 @AllArgsConstructor
 @Builder
+@Jacksonized
 public class GameResult {
 
-    @NonNull private String player1Name;
-    @NonNull private String player2Name;
-    @NonNull private String winnerName;
-    private int moves;
-    @NonNull private ZonedDateTime startDateTime;
+    @NonNull String player1Name;
+    @NonNull String player2Name;
+    @NonNull String winnerName;
+    int moves;
+    @NonNull ZonedDateTime startDateTime;
 
 }
 
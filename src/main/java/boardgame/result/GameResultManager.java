@@ -3,29 +3,154 @@ package boardgame.result;
 import org.tinylog.Logger;
 
 import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implements the methodes for handleing game results.
  */
 public interface GameResultManager {
 
-    List<GameResult> add(GameResult result) throws IOException;
+    void add(GameResult result) throws IOException;
+
+    /**
+     * Stores several results at once.
+     * Implementations should override it to write the whole batch in one go.
+     * @param results the results to store
+     * @throws IOException if any I/O error occurs
+     */
+    default void addAll(Collection<GameResult> results) throws IOException {
+        for (var result : results) {
+            add(result);
+        }
+    }
 
     List<GameResult> getAll() throws IOException;
 
+    /**
+     * Reads the results one by one, without loading all of them into memory.
+     * The stream holds the underlying file open, so it must be closed after use.
+     * Implementations should override it; the default streams over {@link #getAll()}.
+     * @return the stream of the stored results
+     * @throws IOException if any I/O error occurs
+     */
+    default Stream<GameResult> stream() throws IOException {
+        return getAll().stream();
+    }
+
+    /**
+     * Finds the games in which the player took part, on either side.
+     * The default scans every result; indexing implementations should override it.
+     * The stream must be closed after use.
+     * @param name the name of the player
+     * @return the stream of the player's games
+     * @throws IOException if any I/O error occurs
+     */
+    default Stream<GameResult> findByPlayer(String name) throws IOException {
+        return stream().filter(result -> result.getPlayer1Name().equals(name) || result.getPlayer2Name().equals(name));
+    }
+
+    /**
+     * Finds the games the player won.
+     * The default scans every result; indexing implementations should override it.
+     * The stream must be closed after use.
+     * @param name the name of the player
+     * @return the stream of the player's won games
+     * @throws IOException if any I/O error occurs
+     */
+    default Stream<GameResult> findByWinner(String name) throws IOException {
+        return stream().filter(result -> result.getWinnerName().equals(name));
+    }
+
+    /**
+     * Finds the games started in the given interval.
+     * The default scans every result; indexing implementations should override it.
+     * The stream must be closed after use.
+     * @param from the start of the interval, inclusive
+     * @param to the end of the interval, exclusive
+     * @return the stream of the games started in the interval
+     * @throws IOException if any I/O error occurs
+     */
+    default Stream<GameResult> findByStartTime(ZonedDateTime from, ZonedDateTime to) throws IOException {
+        return stream().filter(result -> !result.getStartDateTime().isBefore(from)
+                && result.getStartDateTime().isBefore(to));
+    }
+
     default List<PlayerStatistics> getBestPlayers(int limit) throws IOException {
         Logger.info("Sorting the best players");
-        var winnerMap = getAll()
-                .stream()
-                .collect(Collectors.groupingBy(GameResult::getWinnerName, Collectors.counting()));
+        Map<String, Long> winnerMap;
+        try (var results = stream()) {
+            winnerMap = results
+                    .parallel()
+                    .collect(Collectors.groupingBy(GameResult::getWinnerName, Collectors.counting()));
+        }
         return winnerMap.entrySet()
                 .stream()
                 .map(entry -> new PlayerStatistics(entry.getKey(), entry.getValue()))
-                .sorted(Comparator.comparingLong(PlayerStatistics::getNumberOfWins).reversed())
+                .sorted(Comparator.comparingLong(PlayerStatistics::getNumberOfWins).reversed()
+                        .thenComparing(PlayerStatistics::getWinnerName))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Computes the full statistics of the players, in a single parallel pass over the results,
+     * in the order they were stored.
+     * @param limit the number of players to return.
+     * @return the statistics of the players with the most wins, best first
+     * @throws IOException if any I/O error occurs
+     */
+    default List<PlayerStatistics> getPlayerStatistics(int limit) throws IOException {
+        Map<String, PlayerStatistics> statistics;
+        try (var results = stream()) {
+            statistics = results.parallel().collect(PlayerStatisticsCollector.collector());
+        }
+        return statistics.values()
+                .stream()
+                .sorted(Comparator.comparingLong(PlayerStatistics::getNumberOfWins).reversed()
+                        .thenComparing(PlayerStatistics::getWinnerName))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Rates every player from the results with a {@link RatingEngine}.
+     * The default rates the whole history on every call; implementations keeping the ratings
+     * up to date should override it.
+     * @return the ratings of the players, by name
+     * @throws IOException if any I/O error occurs
+     */
+    default Map<String, RatingEngine.Rating> getRatings() throws IOException {
+        var engine = new RatingEngine();
+        try (var results = stream()) {
+            engine.recompute(results);
+        }
+        return engine.ratings();
+    }
+
+    /**
+     * Combines the statistics of the players with their ratings.
+     * @param limit the number of players to return.
+     * @return the statistics of the players with the highest ratings, best first
+     * @throws IOException if any I/O error occurs
+     */
+    default List<PlayerStatistics> getTopRatedPlayers(int limit) throws IOException {
+        var ratings = getRatings();
+        return getPlayerStatistics(Integer.MAX_VALUE)
+                .stream()
+                .map(statistics -> {
+                    var rating = ratings.get(statistics.getWinnerName());
+                    return rating == null
+                            ? statistics.withRating(RatingEngine.INITIAL_RATING).withRatingDeviation(RatingEngine.INITIAL_DEVIATION)
+                            : statistics.withRating(rating.rating()).withRatingDeviation(rating.deviation());
+                })
+                .sorted(Comparator.comparingDouble(PlayerStatistics::getRating).reversed()
+                        .thenComparing(PlayerStatistics::getWinnerName))
                 .limit(limit)
                 .toList();
     }
@@ -0,0 +1,55 @@
+package boardgame.result;
+
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Creates the game result managers used by the application.
+ */
+public final class GameResultManagers {
+
+    /**
+     * The journal in which the application stores the results.
+     */
+    public static final Path RESULTS_PATH = Path.of("results.jsonl");
+
+    /**
+     * The results file of earlier versions, migrated into the journal on first use.
+     */
+    public static final Path LEGACY_RESULTS_PATH = Path.of("results.json");
+
+    private static CachingGameResultManager defaultManager;
+
+    private GameResultManagers() {
+    }
+
+    /**
+     * Returns the manager shared by the whole application, opening it on the first call.
+     * It caches the results over the ratings, the leaderboard and the lookup indexes of the journal,
+     * and it is closed when the application exits.
+     * @return the shared manager
+     * @throws IOException if the journal cannot be opened
+     */
+    public static synchronized CachingGameResultManager defaultManager() throws IOException {
+        if (defaultManager == null) {
+            var manager = new CachingGameResultManager(
+                    new RatingGameResultManager(
+                            new LeaderboardGameResultManager(
+                                    new IndexedGameResultManager(JsonLinesGameResultManager.open(RESULTS_PATH, LEGACY_RESULTS_PATH)),
+                                    RESULTS_PATH),
+                            RESULTS_PATH),
+                    RESULTS_PATH);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    manager.close();
+                } catch (IOException e) {
+                    Logger.error(e, "Failed to close the game results.");
+                }
+            }, "result-closer"));
+            defaultManager = manager;
+        }
+        return defaultManager;
+    }
+}
@@ -0,0 +1,226 @@
+package boardgame.result;
+
+import lombok.NonNull;
+import org.tinylog.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Decorates a GameResultManager with asynchronous, group-committed writes.
+ * Submitted results are queued, and a single writer thread stores them with
+ * {@link GameResultManager#addAll} once {@code maxBatch} results are waiting,
+ * or {@code maxDelay} after the first of them arrived.
+ * Results still in the queue are not visible to {@link #getAll()}.
+ */
+public class GroupCommitGameResultManager implements GameResultManager, Closeable {
+
+    private record Pending(GameResult result, CompletableFuture<Void> future) {
+    }
+
+    private static final Pending STOP = new Pending(null, null);
+
+    private final GameResultManager delegate;
+    private final int maxBatch;
+    private final long maxDelay;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private final ReadWriteLock closing = new ReentrantReadWriteLock();
+    private boolean closed;
+
+    /**
+     * Starts the writer thread.
+     * @param delegate the manager storing the results; only the writer thread writes to it.
+     * @param maxBatch the number of results that triggers a commit.
+     * @param maxDelay the longest time a result waits for its batch to fill.
+     */
+    public GroupCommitGameResultManager(@NonNull GameResultManager delegate, int maxBatch, @NonNull Duration maxDelay) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("The batch size must be positive.");
+        }
+        this.delegate = delegate;
+        this.maxBatch = maxBatch;
+        this.maxDelay = maxDelay.toNanos();
+        writer = new Thread(this::writeLoop, "result-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a result for the next commit.
+     * @param result the result to store.
+     * @return a future completed once the delegate has stored the result.
+     * @throws IllegalStateException if the manager is closed
+     */
+    public CompletableFuture<Void> submit(@NonNull GameResult result) {
+        closing.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("The manager is closed.");
+            }
+            var future = new CompletableFuture<Void>();
+            queue.add(new Pending(result, future));
+            return future;
+        } finally {
+            closing.readLock().unlock();
+        }
+    }
+
+    /**
+     * Queues a result and waits until it is stored.
+     */
+    @Override
+    public void add(@NonNull GameResult result) throws IOException {
+        await(submit(result));
+    }
+
+    /**
+     * Queues the results and waits until all of them are stored.
+     */
+    @Override
+    public void addAll(@NonNull Collection<GameResult> results) throws IOException {
+        var futures = results.stream().map(this::submit).toArray(CompletableFuture[]::new);
+        await(CompletableFuture.allOf(futures));
+    }
+
+    private static void await(CompletableFuture<Void> future) throws IOException {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public List<GameResult> getAll() throws IOException {
+        return delegate.getAll();
+    }
+
+    @Override
+    public Stream<GameResult> stream() throws IOException {
+        return delegate.stream();
+    }
+
+    @Override
+    public Stream<GameResult> findByPlayer(String name) throws IOException {
+        return delegate.findByPlayer(name);
+    }
+
+    @Override
+    public Stream<GameResult> findByWinner(String name) throws IOException {
+        return delegate.findByWinner(name);
+    }
+
+    @Override
+    public Stream<GameResult> findByStartTime(ZonedDateTime from, ZonedDateTime to) throws IOException {
+        return delegate.findByStartTime(from, to);
+    }
+
+    @Override
+    public List<PlayerStatistics> getBestPlayers(int limit) throws IOException {
+        return delegate.getBestPlayers(limit);
+    }
+
+    @Override
+    public List<PlayerStatistics> getPlayerStatistics(int limit) throws IOException {
+        return delegate.getPlayerStatistics(limit);
+    }
+
+    @Override
+    public Map<String, RatingEngine.Rating> getRatings() throws IOException {
+        return delegate.getRatings();
+    }
+
+    @Override
+    public List<PlayerStatistics> getTopRatedPlayers(int limit) throws IOException {
+        return delegate.getTopRatedPlayers(limit);
+    }
+
+    private void writeLoop() {
+        var batch = new ArrayList<Pending>(maxBatch);
+        var running = true;
+        while (running) {
+            try {
+                var first = queue.take();
+                if (first == STOP) {
+                    break;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelay;
+                while (batch.size() < maxBatch) {
+                    var next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    if (next == STOP) {
+                        running = false;
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            commit(batch);
+        }
+        var rest = new ArrayList<Pending>();
+        queue.drainTo(rest);
+        rest.remove(STOP);
+        commit(rest);
+    }
+
+    private void commit(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            delegate.addAll(batch.stream().map(Pending::result).toList());
+            batch.forEach(pending -> pending.future().complete(null));
+        } catch (IOException | RuntimeException e) {
+            Logger.error(e, "Group commit of {} game results failed.", batch.size());
+            batch.forEach(pending -> pending.future().completeExceptionally(e));
+        }
+        batch.clear();
+    }
+
+    /**
+     * Commits the queued results, and stops the writer thread.
+     * No result can be queued behind the stop marker, since submitting and closing
+     * exclude each other. The delegate is not closed.
+     */
+    @Override
+    public void close() {
+        closing.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(STOP);
+        } finally {
+            closing.writeLock().unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
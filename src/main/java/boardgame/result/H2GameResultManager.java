@@ -0,0 +1,291 @@
+package boardgame.result;
+
+import lombok.NonNull;
+import org.tinylog.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Implements the GameResultManager interface with an embedded H2 database.
+ * The results are kept in one table, indexed by the players, the winner and the start time,
+ * and the aggregates and lookups are answered by SQL queries on those indexes.
+ * Start times are stored with their offset and to the nanosecond, like in the other stores;
+ * they are read back with a fixed offset instead of their original region.
+ */
+public class H2GameResultManager implements GameResultManager, Closeable {
+
+    private static final String COLUMNS = "player1_name, player2_name, winner_name, moves, start_date_time";
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS game_result ("
+                    + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "player1_name VARCHAR NOT NULL, "
+                    + "player2_name VARCHAR NOT NULL, "
+                    + "winner_name VARCHAR NOT NULL, "
+                    + "moves INT NOT NULL, "
+                    + "start_date_time TIMESTAMP(9) WITH TIME ZONE NOT NULL)",
+            "ALTER TABLE game_result ALTER COLUMN start_date_time SET DATA TYPE TIMESTAMP(9) WITH TIME ZONE",
+            "CREATE INDEX IF NOT EXISTS game_result_player1 ON game_result (player1_name)",
+            "CREATE INDEX IF NOT EXISTS game_result_player2 ON game_result (player2_name)",
+            "CREATE INDEX IF NOT EXISTS game_result_winner ON game_result (winner_name)",
+            "CREATE INDEX IF NOT EXISTS game_result_start ON game_result (start_date_time)"
+    };
+
+    private static final int IMPORT_BATCH = 1000;
+
+    private final Connection connection;
+
+    /**
+     * Opens or creates a database.
+     * @param url the JDBC URL of the database.
+     * @throws IOException if the database cannot be opened
+     */
+    public H2GameResultManager(@NonNull String url) throws IOException {
+        try {
+            connection = DriverManager.getConnection(url);
+            try (var statement = connection.createStatement()) {
+                for (var sql : SCHEMA) {
+                    statement.execute(sql);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("Cannot open the game result database " + url, e);
+        }
+    }
+
+    /**
+     * Opens or creates a database file.
+     * @param filePath the database file, without the {@code .mv.db} extension H2 adds to it.
+     * @throws IOException if the database cannot be opened
+     */
+    public H2GameResultManager(@NonNull Path filePath) throws IOException {
+        this("jdbc:h2:file:" + filePath.toAbsolutePath());
+    }
+
+    @Override
+    public void add(@NonNull GameResult result) throws IOException {
+        addAll(List.of(result));
+    }
+
+    /**
+     * Inserts the results with one batched statement, in a single transaction.
+     */
+    @Override
+    public synchronized void addAll(@NonNull Collection<GameResult> results) throws IOException {
+        if (results.isEmpty()) {
+            return;
+        }
+        try {
+            connection.setAutoCommit(false);
+            try (var insert = connection.prepareStatement("INSERT INTO game_result (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?)")) {
+                for (var result : results) {
+                    insert.setString(1, result.getPlayer1Name());
+                    insert.setString(2, result.getPlayer2Name());
+                    insert.setString(3, result.getWinnerName());
+                    insert.setInt(4, result.getMoves());
+                    insert.setObject(5, result.getStartDateTime().toOffsetDateTime());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Cannot store the game results.", e);
+        }
+    }
+
+    @Override
+    public List<GameResult> getAll() throws IOException {
+        try (var results = stream()) {
+            return new ArrayList<>(results.toList());
+        }
+    }
+
+    @Override
+    public Stream<GameResult> stream() throws IOException {
+        return query("SELECT " + COLUMNS + " FROM game_result ORDER BY id");
+    }
+
+    /**
+     * Answers from the player indexes, in the order the results were added.
+     */
+    @Override
+    public Stream<GameResult> findByPlayer(@NonNull String name) throws IOException {
+        return query("SELECT " + COLUMNS + " FROM ("
+                + "SELECT id, " + COLUMNS + " FROM game_result WHERE player1_name = ? "
+                + "UNION ALL "
+                + "SELECT id, " + COLUMNS + " FROM game_result WHERE player2_name = ? AND player1_name <> ?"
+                + ") ORDER BY id", name, name, name);
+    }
+
+    /**
+     * Answers from the winner index, in the order the results were added.
+     */
+    @Override
+    public Stream<GameResult> findByWinner(@NonNull String name) throws IOException {
+        return query("SELECT " + COLUMNS + " FROM game_result WHERE winner_name = ? ORDER BY id", name);
+    }
+
+    /**
+     * Answers from the start time index, in the order of the start times.
+     */
+    @Override
+    public Stream<GameResult> findByStartTime(@NonNull ZonedDateTime from, @NonNull ZonedDateTime to) throws IOException {
+        return query("SELECT " + COLUMNS + " FROM game_result WHERE start_date_time >= ? AND start_date_time < ? "
+                + "ORDER BY start_date_time, id", from.toOffsetDateTime(), to.toOffsetDateTime());
+    }
+
+    /**
+     * Counts the wins in the database, and returns only the best players.
+     */
+    @Override
+    public List<PlayerStatistics> getBestPlayers(int limit) throws IOException {
+        try (var select = connection.prepareStatement("SELECT winner_name, COUNT(*) AS wins FROM game_result "
+                + "GROUP BY winner_name ORDER BY wins DESC, winner_name LIMIT ?")) {
+            select.setInt(1, limit);
+            var best = new ArrayList<PlayerStatistics>();
+            try (var rows = select.executeQuery()) {
+                while (rows.next()) {
+                    best.add(new PlayerStatistics(rows.getString(1), rows.getLong(2)));
+                }
+            }
+            return best;
+        } catch (SQLException e) {
+            throw new IOException("Cannot query the best players.", e);
+        }
+    }
+
+    /**
+     * Runs a query, and streams its rows as results.
+     * The statement stays open until the stream is closed.
+     */
+    private Stream<GameResult> query(String sql, Object... parameters) throws IOException {
+        PreparedStatement select = null;
+        try {
+            select = connection.prepareStatement(sql);
+            for (int i = 0; i < parameters.length; i++) {
+                select.setObject(i + 1, parameters[i]);
+            }
+            var rows = select.executeQuery();
+            var statement = select;
+            return StreamSupport.stream(new Rows(rows), false).onClose(() -> {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    throw new UncheckedIOException(new IOException(e));
+                }
+            });
+        } catch (SQLException e) {
+            if (select != null) {
+                try {
+                    select.close();
+                } catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw new IOException("Cannot query the game results.", e);
+        }
+    }
+
+    private static final class Rows extends Spliterators.AbstractSpliterator<GameResult> {
+        private final ResultSet rows;
+
+        Rows(ResultSet rows) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super GameResult> action) {
+            try {
+                if (!rows.next()) {
+                    return false;
+                }
+                action.accept(new GameResult(rows.getString(1), rows.getString(2), rows.getString(3), rows.getInt(4),
+                        rows.getObject(5, OffsetDateTime.class).toZonedDateTime()));
+                return true;
+            } catch (SQLException e) {
+                throw new UncheckedIOException(new IOException(e));
+            }
+        }
+    }
+
+    /**
+     * Copies every result of another manager into the database, in batches.
+     * @param source the manager to copy from.
+     * @return the number of results copied
+     * @throws IOException if any I/O error occurs
+     */
+    public long importFrom(@NonNull GameResultManager source) throws IOException {
+        long count = 0;
+        var batch = new ArrayList<GameResult>(IMPORT_BATCH);
+        try (var results = source.stream()) {
+            var iterator = results.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == IMPORT_BATCH) {
+                    addAll(batch);
+                    count += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        addAll(batch);
+        count += batch.size();
+        Logger.info("Imported {} game results.", count);
+        return count;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            throw new IOException("Cannot close the game result database.", e);
+        }
+    }
+
+    /**
+     * Imports the results of the application into a database.
+     *
+     * <p>Usage: {@code H2GameResultManager [database] [results file]}; the results file is read
+     * as JSON Lines if its name ends with {@code .jsonl}, and as a JSON array otherwise.</p>
+     */
+    public static void main(String[] args) throws IOException {
+        var database = Path.of(args.length > 0 ? args[0] : "results");
+        var source = Path.of(args.length > 1 ? args[1] : GameResultManagers.RESULTS_PATH.toString());
+        if (!Files.exists(source)) {
+            source = GameResultManagers.LEGACY_RESULTS_PATH;
+        }
+        try (var manager = new H2GameResultManager(database)) {
+            var from = source.getFileName().toString().endsWith(".jsonl")
+                    ? new JsonLinesGameResultManager(source)
+                    : new JsonGameResultManager(source);
+            System.out.printf("Imported %d game results from %s.%n", manager.importFrom(from), source);
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package boardgame.result;
+
+import lombok.NonNull;
+import org.tinylog.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Decorates a GameResultManager with in-memory secondary indexes, by player, by winner
+ * and by start time, so the lookups only touch the matching results.
+ * The indexes are built from the delegate's {@link GameResultManager#stream() stream} on the first
+ * lookup, and then kept up to date by {@link #add} and {@link #addAll}. They hold the positions of the
+ * results in a single list, so every result is kept once, however many indexes refer to it.
+ *
+ * <p>A {@link JsonLinesGameResultManager journal} is indexed by the byte offsets of its lines instead,
+ * so the indexes take a few dozen bytes per result and the lookups only read the matching lines.
+ * Every lookup first checks the journal against its {@link FileStamp}. Lines appended since,
+ * by this manager or by other processes, are scanned and indexed; if the journal was replaced,
+ * for example by a compaction, the indexes are built again. Other backends are only followed
+ * through this manager.</p>
+ */
+public class IndexedGameResultManager implements GameResultManager, Closeable {
+
+    /**
+     * A growable list of line offsets.
+     */
+    private static final class Offsets {
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private final GameResultManager delegate;
+    private final JsonLinesGameResultManager journal;
+    private final List<GameResult> stored = new ArrayList<>();
+    private final Object writes = new Object();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Offsets> byPlayer = new HashMap<>();
+    private final Map<String, Offsets> byWinner = new HashMap<>();
+    private long[] startTimes = new long[16];
+    private long[] startOffsets = new long[16];
+    private int timed;
+    private boolean timesSorted = true;
+    private volatile boolean built;
+    private FileStamp known = FileStamp.UNKNOWN;
+    private Object knownKey;
+    private long scanned;
+
+    /**
+     * @param delegate the manager storing the results.
+     */
+    public IndexedGameResultManager(@NonNull GameResultManager delegate) {
+        this.delegate = delegate;
+        this.journal = delegate instanceof JsonLinesGameResultManager manager ? manager : null;
+    }
+
+    private Object fileKey() throws IOException {
+        try {
+            return Files.readAttributes(journal.getFilePath(), BasicFileAttributes.class).fileKey();
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Brings the indexes up to date with the delegate, building them on the first call.
+     */
+    private void refresh() throws IOException {
+        if (journal == null) {
+            if (!built) {
+                synchronized (writes) {
+                    lock.writeLock().lock();
+                    try {
+                        if (!built) {
+                            rebuild();
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+            }
+            return;
+        }
+        var stamp = FileStamp.of(journal.getFilePath());
+        var key = fileKey();
+        lock.readLock().lock();
+        try {
+            if (built && stamp.equals(known) && Objects.equals(key, knownKey)) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!built || !Objects.equals(key, knownKey) || stamp.size() < scanned) {
+                Logger.info("Building the game result indexes.");
+                byPlayer.clear();
+                byWinner.clear();
+                timed = 0;
+                timesSorted = true;
+                scanned = 0;
+                built = true;
+            }
+            try {
+                scanned = journal.scan(scanned, this::index);
+            } catch (IOException | RuntimeException e) {
+                built = false;
+                throw e;
+            }
+            if (!timesSorted) {
+                sortTimes();
+            }
+            knownKey = key;
+            known = stamp;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes every result of the delegate, by its position in {@link #stored}.
+     */
+    private void rebuild() throws IOException {
+        Logger.info("Building the game result indexes.");
+        byPlayer.clear();
+        byWinner.clear();
+        stored.clear();
+        timed = 0;
+        timesSorted = true;
+        try (var results = delegate.stream()) {
+            results.sequential().forEachOrdered(this::store);
+        } catch (IOException | RuntimeException e) {
+            stored.clear();
+            throw e;
+        }
+        if (!timesSorted) {
+            sortTimes();
+        }
+        built = true;
+    }
+
+    private void store(GameResult result) {
+        index(result, stored.size());
+        stored.add(result);
+    }
+
+    private void index(GameResult result, long offset) {
+        byPlayer.computeIfAbsent(result.getPlayer1Name(), name -> new Offsets()).add(offset);
+        if (!result.getPlayer2Name().equals(result.getPlayer1Name())) {
+            byPlayer.computeIfAbsent(result.getPlayer2Name(), name -> new Offsets()).add(offset);
+        }
+        byWinner.computeIfAbsent(result.getWinnerName(), name -> new Offsets()).add(offset);
+        long time = result.getStartDateTime().toInstant().toEpochMilli();
+        if (timed == startTimes.length) {
+            startTimes = Arrays.copyOf(startTimes, timed * 2);
+            startOffsets = Arrays.copyOf(startOffsets, timed * 2);
+        }
+        timesSorted &= timed == 0 || startTimes[timed - 1] <= time;
+        startTimes[timed] = time;
+        startOffsets[timed] = offset;
+        timed++;
+    }
+
+    /**
+     * Sorts the start time index, with the offsets in the order of the lines within a time.
+     * The results are nearly always appended in the order of their start times, so this is rarely needed.
+     */
+    private void sortTimes() {
+        var order = new Integer[timed];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingLong((Integer i) -> startTimes[i]).thenComparingLong(i -> startOffsets[i]));
+        var times = new long[startTimes.length];
+        var offsets = new long[startOffsets.length];
+        for (int i = 0; i < timed; i++) {
+            times[i] = startTimes[order[i]];
+            offsets[i] = startOffsets[order[i]];
+        }
+        startTimes = times;
+        startOffsets = offsets;
+        timesSorted = true;
+    }
+
+    /**
+     * Writes through to the delegate, and indexes the new results if the indexes are built.
+     * A journal is written holding its {@link ResultFileLock}, and its new lines are then scanned.
+     */
+    @Override
+    public void add(@NonNull GameResult result) throws IOException {
+        addAll(List.of(result));
+    }
+
+    @Override
+    public void addAll(@NonNull Collection<GameResult> results) throws IOException {
+        if (journal == null) {
+            synchronized (writes) {
+                try {
+                    delegate.addAll(results);
+                } catch (IOException | RuntimeException e) {
+                    built = false;
+                    throw e;
+                }
+                if (built) {
+                    lock.writeLock().lock();
+                    try {
+                        results.forEach(this::store);
+                        if (!timesSorted) {
+                            sortTimes();
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+            }
+            return;
+        }
+        ResultFileLock.withLock(journal.getFilePath(), () -> {
+            delegate.addAll(results);
+            if (built) {
+                refresh();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public List<GameResult> getAll() throws IOException {
+        return delegate.getAll();
+    }
+
+    @Override
+    public Stream<GameResult> stream() throws IOException {
+        return delegate.stream();
+    }
+
+    /**
+     * Reads the results at the positions, or the lines at the offsets of a journal.
+     * The journal is opened before it is checked against the indexes,
+     * so a compaction racing the lookup is noticed, and the lookup repeated on the new journal.
+     */
+    private List<GameResult> read(Lookup lookup) throws IOException {
+        if (journal == null) {
+            refresh();
+            lock.readLock().lock();
+            try {
+                var positions = lookup.offsets();
+                var results = new ArrayList<GameResult>(positions.length);
+                for (var position : positions) {
+                    results.add(stored.get((int) position));
+                }
+                return results;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        while (true) {
+            refresh();
+            try (var in = FileChannel.open(journal.getFilePath(), StandardOpenOption.READ)) {
+                long[] offsets;
+                lock.readLock().lock();
+                try {
+                    if (!Objects.equals(fileKey(), knownKey)) {
+                        continue;
+                    }
+                    offsets = lookup.offsets();
+                } finally {
+                    lock.readLock().unlock();
+                }
+                var results = new ArrayList<GameResult>(offsets.length);
+                for (var offset : offsets) {
+                    results.add(JsonLinesGameResultManager.readAt(in, offset));
+                }
+                return results;
+            } catch (NoSuchFileException e) {
+                return List.of();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Lookup {
+        long[] offsets() throws IOException;
+    }
+
+    private Stream<GameResult> lookup(Map<String, Offsets> index, String name) throws IOException {
+        return read(() -> {
+            var offsets = index.get(name);
+            return offsets == null ? new long[0] : offsets.toArray();
+        }).stream();
+    }
+
+    /**
+     * Answers from the player index, in the order the results were added.
+     */
+    @Override
+    public Stream<GameResult> findByPlayer(@NonNull String name) throws IOException {
+        return lookup(byPlayer, name);
+    }
+
+    /**
+     * Answers from the winner index, in the order the results were added.
+     */
+    @Override
+    public Stream<GameResult> findByWinner(@NonNull String name) throws IOException {
+        return lookup(byWinner, name);
+    }
+
+    /**
+     * Answers from the start time index, in the order of the start times.
+     * The index holds milliseconds, so the candidates at both ends are checked exactly after reading.
+     */
+    @Override
+    public Stream<GameResult> findByStartTime(@NonNull ZonedDateTime from, @NonNull ZonedDateTime to) throws IOException {
+        if (!from.isBefore(to)) {
+            return Stream.empty();
+        }
+        long low = from.toInstant().toEpochMilli();
+        long high = to.toInstant().toEpochMilli() + 1;
+        var matches = read(() -> {
+            int first = lowerBound(low);
+            int last = lowerBound(high);
+            return Arrays.copyOfRange(startOffsets, first, last);
+        });
+        return matches.stream()
+                .filter(result -> !result.getStartDateTime().isBefore(from) && result.getStartDateTime().isBefore(to))
+                .sorted(Comparator.comparing(result -> result.getStartDateTime().toInstant()));
+    }
+
+    /**
+     * @return the index of the first start time not before {@code time}.
+     */
+    private int lowerBound(long time) {
+        int low = 0;
+        int high = timed;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (startTimes[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Closes the delegate if it is closeable.
+     */
+    @Override
+    public void close() throws IOException {
+        if (delegate instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -3,45 +3,84 @@ package boardgame.result;
 
 import lombok.NonNull;
 import org.tinylog.Logger;
-import util.JacksonHelper;
+import util.Codec;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Implements the GameResultManager interface for Json format.
+ * The file is written with a {@link Codec}, indented JSON by default, and read with the codec
+ * it was written in, so changing the codec converts the file on the next write.
  */
 public class JsonGameResultManager implements GameResultManager {
 
     private Path filePath;
+    private final Codec codec;
 
-    public JsonGameResultManager(@NonNull Path filePath) {
+    public JsonGameResultManager(@NonNull Path filePath, @NonNull Codec codec) {
         this.filePath = filePath;
+        this.codec = codec;
+    }
+
+    public JsonGameResultManager(@NonNull Path filePath) {
+        this(filePath, Codec.PRETTY_JSON);
     }
 
     @Override
-    public List<GameResult> add(@NonNull GameResult result) throws IOException {
-        var results = getAll();
-        results.add(result);
-        try (var out = Files.newOutputStream(filePath)) {
+    public void add(@NonNull GameResult result) throws IOException {
+        addAll(List.of(result));
+    }
+
+    /**
+     * Rewrites the file with the added results, holding the {@link ResultFileLock} of the file,
+     * so concurrent writers of this or other processes do not lose each other's results.
+     * The file is replaced atomically, so readers never see it half-written.
+     */
+    @Override
+    public void addAll(@NonNull Collection<GameResult> added) throws IOException {
+        ResultFileLock.withLock(filePath, () -> {
+            var results = getAll();
+            results.addAll(added);
             Logger.info("Writing game results into file.");
-            JacksonHelper.writeList(out, results);
-        }
-        return results;
+            ResultFileLock.replace(filePath, temp -> {
+                try (var out = Files.newOutputStream(temp)) {
+                    codec.writeList(out, results, GameResult.class);
+                }
+            });
+            return null;
+        });
     }
 
     public List<GameResult> getAll() throws IOException {
         if (!Files.exists(filePath)) {
             return new ArrayList<GameResult>();
         }
-        try (var in = Files.newInputStream(filePath)) {
+        try (var in = new BufferedInputStream(Files.newInputStream(filePath))) {
             Logger.info("Reading game results from file.");
-            return JacksonHelper.readList(in, GameResult.class);
+            return Codec.detect(in).readList(in, GameResult.class);
         }
     }
 
-}
+    @Override
+    public Stream<GameResult> stream() throws IOException {
+        if (!Files.exists(filePath)) {
+            return Stream.empty();
+        }
+        Logger.info("Streaming game results from file.");
+        var in = new BufferedInputStream(Files.newInputStream(filePath));
+        try {
+            return Codec.detect(in).streamList(in, GameResult.class);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
 
+}
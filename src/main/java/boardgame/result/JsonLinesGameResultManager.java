@@ -0,0 +1,364 @@
+package boardgame.result;
+
+import lombok.NonNull;
+import org.tinylog.Logger;
+import util.JacksonHelper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Implements the GameResultManager interface for an append-only JSON Lines journal.
+ * Every result is one line of compact JSON, appended to the end of the file,
+ * so adding a result costs the same however many results are stored.
+ * A line cut short by a crash is skipped when reading, and removed by {@link #compact()}.
+ */
+public class JsonLinesGameResultManager implements GameResultManager, Closeable {
+
+    /**
+     * When the appended lines are forced to the storage device.
+     */
+    public enum FsyncPolicy {
+        /**
+         * The operating system decides when the data reaches the disk.
+         */
+        NEVER,
+        /**
+         * Every add returns only after its line is on the disk.
+         */
+        ALWAYS
+    }
+
+    private static final byte NEWLINE = '\n';
+    private static final int SCAN_BUFFER_BYTES = 1 << 16;
+
+    private final Path filePath;
+    private final FsyncPolicy fsyncPolicy;
+    private FileChannel channel;
+    private Object channelKey;
+    private ScheduledExecutorService compactor;
+    private volatile boolean damaged;
+
+    public JsonLinesGameResultManager(@NonNull Path filePath, @NonNull FsyncPolicy fsyncPolicy) {
+        this.filePath = filePath;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    public JsonLinesGameResultManager(@NonNull Path filePath) {
+        this(filePath, FsyncPolicy.NEVER);
+    }
+
+    /**
+     * Opens a journal, migrating the results of a JSON array file into it first
+     * if the journal does not exist yet.
+     * @param filePath the journal file.
+     * @param legacyPath the JSON array file written by {@link JsonGameResultManager}.
+     * @return the journal manager.
+     * @throws IOException if the migration fails
+     */
+    public static JsonLinesGameResultManager open(@NonNull Path filePath, @NonNull Path legacyPath) throws IOException {
+        migrate(legacyPath, filePath);
+        return new JsonLinesGameResultManager(filePath);
+    }
+
+    /**
+     * Converts a JSON array file to a journal, unless the journal already exists.
+     * The journal is written to a temporary file and moved in place, so an
+     * interrupted migration is simply repeated. The array file is left untouched.
+     * @param legacyPath the JSON array file written by {@link JsonGameResultManager}.
+     * @param filePath the journal file.
+     * @return the number of migrated results.
+     * @throws IOException if any I/O error occurs
+     */
+    public static int migrate(@NonNull Path legacyPath, @NonNull Path filePath) throws IOException {
+        return ResultFileLock.withLock(filePath, () -> {
+            if (Files.exists(filePath) || !Files.exists(legacyPath)) {
+                return 0;
+            }
+            var results = new JsonGameResultManager(legacyPath).getAll();
+            writeAtomically(filePath, results);
+            Logger.info("Migrated {} game results from {} to {}.", results.size(), legacyPath, filePath);
+            return results.size();
+        });
+    }
+
+    @Override
+    public void add(@NonNull GameResult result) throws IOException {
+        addAll(List.of(result));
+    }
+
+    /**
+     * Appends the results with a single write, and with a single fsync under {@link FsyncPolicy#ALWAYS}.
+     * The append holds the {@link ResultFileLock} of the journal, so it cannot interleave with
+     * the writes or the compaction of other processes.
+     */
+    @Override
+    public void addAll(@NonNull Collection<GameResult> results) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        for (var result : results) {
+            bytes.write(JacksonHelper.writeCompact(result));
+            bytes.write(NEWLINE);
+        }
+        var lines = ByteBuffer.wrap(bytes.toByteArray());
+        ResultFileLock.withLock(filePath, () -> {
+            synchronized (this) {
+                var out = channel();
+                while (lines.hasRemaining()) {
+                    out.write(lines);
+                }
+                if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                    out.force(false);
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public List<GameResult> getAll() throws IOException {
+        var results = new ArrayList<GameResult>();
+        if (!Files.exists(filePath)) {
+            return results;
+        }
+        Logger.info("Reading game results from journal.");
+        try (var stream = stream()) {
+            stream.forEachOrdered(results::add);
+        }
+        return results;
+    }
+
+    /**
+     * Streams the results line by line. The stream splits well in parallel,
+     * since the lines of a file can be divided without reading it first.
+     */
+    @Override
+    public Stream<GameResult> stream() throws IOException {
+        if (!Files.exists(filePath)) {
+            return Stream.empty();
+        }
+        return Files.lines(filePath, StandardCharsets.UTF_8)
+                .map(this::parse)
+                .filter(Objects::nonNull);
+    }
+
+    private GameResult parse(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            return JacksonHelper.read(line, GameResult.class);
+        } catch (IOException | RuntimeException e) {
+            Logger.warn("Skipping damaged journal line.");
+            damaged = true;
+            return null;
+        }
+    }
+
+    /**
+     * @return the journal file.
+     */
+    public Path getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Reads the journal from the start of a line to its last complete line, and hands over every result
+     * together with the offset of its line. A last line without its line break, still being appended
+     * or cut short by a crash, is left for a later scan.
+     * @param from the offset of the first line to read.
+     * @param action receives every result with the offset of its line.
+     * @return the offset after the last complete line
+     * @throws IOException if any I/O error occurs
+     */
+    long scan(long from, @NonNull ObjLongConsumer<GameResult> action) throws IOException {
+        if (!Files.exists(filePath)) {
+            return from;
+        }
+        try (var in = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+            var line = new ByteArrayOutputStream();
+            long lineStart = from;
+            long position = from;
+            while (in.read(buffer, position) > 0) {
+                buffer.flip();
+                var bytes = buffer.array();
+                int start = 0;
+                for (int i = 0; i < buffer.limit(); i++) {
+                    if (bytes[i] == NEWLINE) {
+                        line.write(bytes, start, i - start);
+                        var result = parse(line.toString(StandardCharsets.UTF_8));
+                        if (result != null) {
+                            action.accept(result, lineStart);
+                        }
+                        line.reset();
+                        start = i + 1;
+                        lineStart = position + start;
+                    }
+                }
+                line.write(bytes, start, buffer.limit() - start);
+                position += buffer.limit();
+                buffer.clear();
+            }
+            return lineStart;
+        }
+    }
+
+    /**
+     * Reads the result on the line starting at an offset.
+     * @param in the journal, open for reading.
+     * @param offset the offset of a line found by {@link #scan}.
+     * @return the result on the line
+     * @throws IOException if the line cannot be read or parsed
+     */
+    static GameResult readAt(@NonNull FileChannel in, long offset) throws IOException {
+        var buffer = ByteBuffer.allocate(256);
+        var line = new ByteArrayOutputStream();
+        long position = offset;
+        int read;
+        while ((read = in.read(buffer, position)) > 0) {
+            var bytes = buffer.array();
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == NEWLINE) {
+                    line.write(bytes, 0, i);
+                    return JacksonHelper.read(line.toString(StandardCharsets.UTF_8), GameResult.class);
+                }
+            }
+            line.write(bytes, 0, read);
+            position += read;
+            buffer.clear();
+        }
+        throw new IOException("No complete journal line at offset " + offset + ".");
+    }
+
+    /**
+     * Rewrites the journal without its damaged lines.
+     * The new journal is written to a temporary file and moved in place.
+     * @throws IOException if any I/O error occurs
+     */
+    public void compact() throws IOException {
+        ResultFileLock.withLock(filePath, () -> {
+            synchronized (this) {
+                var results = getAll();
+                closeChannel();
+                writeAtomically(filePath, results);
+                damaged = false;
+                Logger.info("Compacted journal to {} game results.", results.size());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Starts a daemon thread that compacts the journal once damaged lines have been seen.
+     * @param interval the time between two checks.
+     */
+    public synchronized void startBackgroundCompaction(@NonNull Duration interval) {
+        if (compactor != null) {
+            return;
+        }
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(() -> {
+            try {
+                if (damaged) {
+                    compact();
+                }
+            } catch (IOException e) {
+                Logger.error(e, "Journal compaction failed.");
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static void writeAtomically(Path filePath, List<GameResult> results) throws IOException {
+        ResultFileLock.replace(filePath, temp -> {
+            try (var out = Files.newOutputStream(temp)) {
+                for (var result : results) {
+                    out.write(JacksonHelper.writeCompact(result));
+                    out.write(NEWLINE);
+                }
+            }
+        });
+    }
+
+    /**
+     * Opens the journal for appending. If another process has replaced the journal since it was
+     * opened, for example by compacting it, the channel is reopened on the new file; if it has
+     * deleted the journal, a new one is created, so no result goes to the unlinked file.
+     */
+    private FileChannel channel() throws IOException {
+        if (channel != null) {
+            Object key;
+            try {
+                key = Files.readAttributes(filePath, BasicFileAttributes.class).fileKey();
+            } catch (NoSuchFileException e) {
+                key = null;
+                closeChannel();
+            }
+            if (key != null && !key.equals(channelKey)) {
+                closeChannel();
+            }
+        }
+        if (channel == null) {
+            channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            channelKey = Files.readAttributes(filePath, BasicFileAttributes.class).fileKey();
+            terminateLastLine(filePath, channel);
+        }
+        return channel;
+    }
+
+    /**
+     * Ends a line cut short by a crash, so the next result starts on a line of its own.
+     */
+    private static void terminateLastLine(Path filePath, FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return;
+        }
+        var last = ByteBuffer.allocate(1);
+        try (var in = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            in.read(last, size - 1);
+        }
+        if (last.get(0) != NEWLINE) {
+            channel.write(ByteBuffer.wrap(new byte[] {NEWLINE}));
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (compactor != null) {
+            compactor.shutdownNow();
+            compactor = null;
+        }
+        closeChannel();
+    }
+}
@@ -0,0 +1,64 @@
+package boardgame.result;
+
+import lombok.NonNull;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Decorates a GameResultManager with a {@link LeaderboardIndex}, so the best players
+ * are answered without reading the results.
+ * The index is kept in a {@code .leaderboard} file next to the results file, together with the
+ * size and modification time of the results file. It is rebuilt from the results only when the
+ * results file has changed behind the manager's back.
+ */
+public class LeaderboardGameResultManager extends CheckpointedGameResultManager {
+
+    private final LeaderboardIndex index = new LeaderboardIndex();
+
+    /**
+     * Loads the saved index, or builds it if it is out of date.
+     * @param delegate the manager storing the results.
+     * @param filePath the file in which the delegate stores the results.
+     * @throws IOException if the results cannot be read
+     */
+    public LeaderboardGameResultManager(@NonNull GameResultManager delegate, @NonNull Path filePath) throws IOException {
+        super(delegate, filePath, ".leaderboard");
+        refresh();
+    }
+
+    @Override
+    protected boolean load(FileStamp stamp) {
+        return index.load(checkpointPath, stamp.size(), stamp.modified());
+    }
+
+    @Override
+    protected void rebuild() throws IOException {
+        Logger.info("Rebuilding the leaderboard index.");
+        try (var results = delegate.stream()) {
+            index.rebuild(results);
+        }
+    }
+
+    @Override
+    protected void record(Collection<GameResult> results) {
+        results.forEach(index::record);
+    }
+
+    @Override
+    protected void save(FileStamp stamp) throws IOException {
+        index.save(checkpointPath, stamp.size(), stamp.modified());
+    }
+
+    /**
+     * Answers from the index, rebuilding it first only if the results file changed elsewhere.
+     */
+    @Override
+    public synchronized List<PlayerStatistics> getBestPlayers(int limit) throws IOException {
+        refresh();
+        return index.top(limit);
+    }
+}
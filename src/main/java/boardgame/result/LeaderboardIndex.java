@@ -0,0 +1,116 @@
+package boardgame.result;
+
+import lombok.NonNull;
+import util.JacksonHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Win counters of every player, kept sorted for the leaderboard.
+ * Recording a win costs {@code O(log n)} for {@code n} players, and the best
+ * {@code k} players are read without looking at the others.
+ */
+public class LeaderboardIndex {
+
+    private record Entry(String name, long wins) {
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingLong(Entry::wins).reversed()
+            .thenComparing(Entry::name);
+
+    /**
+     * Persisted form of the index, with the size and modification time of the results
+     * file it was built from.
+     */
+    record Snapshot(long sourceSize, long sourceModified, Map<String, Long> wins) {
+    }
+
+    private final Map<String, Long> wins = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>(ORDER);
+
+    /**
+     * Counts the win of a result.
+     * @param result the result to count.
+     */
+    public synchronized void record(@NonNull GameResult result) {
+        var name = result.getWinnerName();
+        long old = wins.getOrDefault(name, 0L);
+        if (old > 0) {
+            ranking.remove(new Entry(name, old));
+        }
+        wins.put(name, old + 1);
+        ranking.add(new Entry(name, old + 1));
+    }
+
+    /**
+     * Forgets every counter, and counts the results of the stream.
+     * @param results the results to count.
+     */
+    public synchronized void rebuild(@NonNull Stream<GameResult> results) {
+        wins.clear();
+        ranking.clear();
+        results.forEachOrdered(this::record);
+    }
+
+    /**
+     * @param limit the number of players to return.
+     * @return the players with the most wins, in decreasing order.
+     */
+    public synchronized List<PlayerStatistics> top(int limit) {
+        return ranking.stream()
+                .limit(limit)
+                .map(entry -> new PlayerStatistics(entry.name(), entry.wins()))
+                .toList();
+    }
+
+    /**
+     * Writes the index next to the results file.
+     * @param indexPath the index file.
+     * @param sourceSize the size of the results file the index reflects.
+     * @param sourceModified the modification time of that file, in milliseconds.
+     * @throws IOException if any I/O error occurs
+     */
+    public void save(@NonNull Path indexPath, long sourceSize, long sourceModified) throws IOException {
+        Snapshot snapshot;
+        synchronized (this) {
+            snapshot = new Snapshot(sourceSize, sourceModified, Map.copyOf(wins));
+        }
+        ResultFileLock.replace(indexPath, temp -> Files.write(temp, JacksonHelper.writeCompact(snapshot)));
+    }
+
+    /**
+     * Loads a saved index, if it was built from a results file of the given size and modification time.
+     * @param indexPath the index file.
+     * @param sourceSize the current size of the results file.
+     * @param sourceModified the current modification time of the results file, in milliseconds.
+     * @return true if the index was loaded, false if it is missing, unreadable or out of date.
+     */
+    public synchronized boolean load(@NonNull Path indexPath, long sourceSize, long sourceModified) {
+        if (!Files.exists(indexPath)) {
+            return false;
+        }
+        try {
+            var snapshot = JacksonHelper.read(Files.readString(indexPath), Snapshot.class);
+            if (snapshot.sourceSize() != sourceSize || snapshot.sourceModified() != sourceModified) {
+                return false;
+            }
+            wins.clear();
+            ranking.clear();
+            snapshot.wins().forEach((name, count) -> {
+                wins.put(name, count);
+                ranking.add(new Entry(name, count));
+            });
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+}
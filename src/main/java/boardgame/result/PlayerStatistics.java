@@ -3,9 +3,13 @@ package boardgame.result;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NonNull;
+import lombok.With;
 
 /**
  * Format for showing results on the leaderboard.
+ * Only the name and the number of wins are always filled in; the other statistics
+ * are zero unless the leaderboard was computed by {@link PlayerStatisticsCollector},
+ * and the rating is zero unless it was taken from a {@link RatingEngine}.
  */
 @Data
 @AllArgsConstructor
@@ -13,5 +17,19 @@ public class PlayerStatistics {
 
     @NonNull private String winnerName;
     private long numberOfWins;
+    private long games;
+    private long losses;
+    private double winRate;
+    private double meanMoves;
+    private int medianMoves;
+    private int p90Moves;
+    private long longestWinStreak;
+    @With private double rating;
+    @With private double ratingDeviation;
 
-}
\ No newline at end of file
+    public PlayerStatistics(@NonNull String winnerName, long numberOfWins) {
+        this.winnerName = winnerName;
+        this.numberOfWins = numberOfWins;
+    }
+
+}
@@ -0,0 +1,158 @@
+package boardgame.result;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collector;
+
+/**
+ * Computes the statistics of every player in a single pass over the results.
+ * The partial statistics of two parts of a stream merge exactly, so the collector
+ * can run on a parallel stream. Win streaks are counted in the encounter order
+ * of the stream, so it should be ordered by start time.
+ */
+public final class PlayerStatisticsCollector {
+
+    /**
+     * Move counts from this on are kept in a sorted map instead of the histogram array,
+     * so a huge count in a hand-edited file costs one map entry, not a huge array.
+     */
+    private static final int DENSE_MOVES = 1024;
+
+    /**
+     * Partial statistics of one player over a run of consecutive results.
+     * The move counts are kept in a histogram, indexed by the number of moves,
+     * with the rare counts of {@link #DENSE_MOVES} or more in a sparse tail.
+     */
+    private static final class Tally {
+        private long games;
+        private long wins;
+        private long totalMoves;
+        private long[] moves = new long[64];
+        private TreeMap<Integer, Long> tail;
+        private long leadingWins;
+        private long trailingWins;
+        private long longestStreak;
+
+        void add(boolean won, int gameMoves) {
+            games++;
+            totalMoves += gameMoves;
+            int bucket = Math.max(gameMoves, 0);
+            if (bucket >= DENSE_MOVES) {
+                if (tail == null) {
+                    tail = new TreeMap<>();
+                }
+                tail.merge(bucket, 1L, Long::sum);
+            } else {
+                if (bucket >= moves.length) {
+                    moves = Arrays.copyOf(moves, Math.min(DENSE_MOVES, Math.max(bucket + 1, moves.length * 2)));
+                }
+                moves[bucket]++;
+            }
+            if (won) {
+                wins++;
+                trailingWins++;
+                if (leadingWins == games - 1) {
+                    leadingWins++;
+                }
+                longestStreak = Math.max(longestStreak, trailingWins);
+            } else {
+                trailingWins = 0;
+            }
+        }
+
+        /**
+         * Appends the results counted by {@code later}, which follow the results of this tally.
+         */
+        Tally merge(Tally later) {
+            longestStreak = Math.max(Math.max(longestStreak, later.longestStreak), trailingWins + later.leadingWins);
+            if (leadingWins == games) {
+                leadingWins += later.leadingWins;
+            }
+            trailingWins = later.trailingWins == later.games ? trailingWins + later.games : later.trailingWins;
+            games += later.games;
+            wins += later.wins;
+            totalMoves += later.totalMoves;
+            if (later.moves.length > moves.length) {
+                moves = Arrays.copyOf(moves, later.moves.length);
+            }
+            for (int i = 0; i < later.moves.length; i++) {
+                moves[i] += later.moves[i];
+            }
+            if (later.tail != null) {
+                if (tail == null) {
+                    tail = later.tail;
+                } else {
+                    later.tail.forEach((bucket, count) -> tail.merge(bucket, count, Long::sum));
+                }
+            }
+            return this;
+        }
+
+        int percentile(double fraction) {
+            long rank = Math.max(1, (long) Math.ceil(fraction * games));
+            long seen = 0;
+            for (int i = 0; i < moves.length; i++) {
+                seen += moves[i];
+                if (seen >= rank) {
+                    return i;
+                }
+            }
+            if (tail != null) {
+                for (var entry : tail.entrySet()) {
+                    seen += entry.getValue();
+                    if (seen >= rank) {
+                        return entry.getKey();
+                    }
+                }
+            }
+            return 0;
+        }
+
+        PlayerStatistics finish(String name) {
+            return new PlayerStatistics(name, wins, games, games - wins,
+                    games == 0 ? 0 : (double) wins / games,
+                    games == 0 ? 0 : (double) totalMoves / games,
+                    percentile(0.5), percentile(0.9), longestStreak, 0, 0);
+        }
+    }
+
+    private PlayerStatisticsCollector() {
+    }
+
+    /**
+     * Creates a collector of the statistics of every player who played one of the results.
+     * A player's game counts as a win if the player is the winner, and as a loss otherwise.
+     * @return the collector, mapping the names of the players to their statistics
+     */
+    public static Collector<GameResult, ?, Map<String, PlayerStatistics>> collector() {
+        return Collector.<GameResult, Map<String, Tally>, Map<String, PlayerStatistics>>of(
+                HashMap::new,
+                PlayerStatisticsCollector::accumulate,
+                PlayerStatisticsCollector::combine,
+                PlayerStatisticsCollector::finish);
+    }
+
+    private static void accumulate(Map<String, Tally> tallies, GameResult result) {
+        var player1 = result.getPlayer1Name();
+        var player2 = result.getPlayer2Name();
+        tallies.computeIfAbsent(player1, name -> new Tally())
+                .add(player1.equals(result.getWinnerName()), result.getMoves());
+        if (!player2.equals(player1)) {
+            tallies.computeIfAbsent(player2, name -> new Tally())
+                    .add(player2.equals(result.getWinnerName()), result.getMoves());
+        }
+    }
+
+    private static Map<String, Tally> combine(Map<String, Tally> earlier, Map<String, Tally> later) {
+        later.forEach((name, tally) -> earlier.merge(name, tally, Tally::merge));
+        return earlier;
+    }
+
+    private static Map<String, PlayerStatistics> finish(Map<String, Tally> tallies) {
+        var statistics = new HashMap<String, PlayerStatistics>(tallies.size() * 2);
+        tallies.forEach((name, tally) -> statistics.put(name, tally.finish(name)));
+        return statistics;
+    }
+}
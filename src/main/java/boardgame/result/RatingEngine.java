@@ -0,0 +1,319 @@
+package boardgame.result;
+
+import lombok.NonNull;
+import util.JacksonHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Glicko-1 ratings of the players, updated incrementally as results arrive.
+ * The results are grouped into rating periods by their start time. Within a period, every
+ * player is rated against the ratings the opponents had at the start of the period, so a game
+ * only adds its terms to the running sums of its two players, and the players of a period are
+ * {@link #recompute recomputed} independently, in parallel.
+ * The period of the latest result is kept open: the ratings of its players are derived from their
+ * sums after every result, and the period is closed when a result of a later period arrives.
+ * Adding a result and reading the ratings therefore cost the same however many games the open
+ * period already holds.
+ */
+public class RatingEngine {
+
+    /**
+     * Rating of a player who has not played yet.
+     */
+    public static final double INITIAL_RATING = 1500;
+
+    /**
+     * Rating deviation of a player who has not played yet, and the largest deviation.
+     */
+    public static final double INITIAL_DEVIATION = 350;
+
+    /**
+     * Length of a rating period by default.
+     */
+    public static final Duration DEFAULT_PERIOD = Duration.ofDays(1);
+
+    private static final double MIN_DEVIATION = 30;
+    private static final double Q = Math.log(10) / 400;
+    /**
+     * Growth of the deviation per idle period; a deviation of 50 returns to 350 after 100 idle periods.
+     */
+    private static final double C_SQUARED = (INITIAL_DEVIATION * INITIAL_DEVIATION - 50 * 50) / 100;
+
+    /**
+     * Rating of a player.
+     * @param rating the rating.
+     * @param deviation the rating deviation.
+     * @param games the number of games rated.
+     * @param wins the number of games won.
+     * @param lastPeriod the rating period of the last game.
+     */
+    public record Rating(double rating, double deviation, long games, long wins, long lastPeriod) {
+    }
+
+    /**
+     * Running sums of the games of a player in the open period.
+     * @param variance the sum of {@code g^2 E (1 - E)} over the games.
+     * @param improvement the sum of {@code g (s - E)} over the games.
+     * @param games the number of games.
+     * @param wins the number of games won.
+     */
+    record Totals(double variance, double improvement, long games, long wins) {
+
+        static final Totals NONE = new Totals(0, 0, 0, 0);
+
+        Totals plus(Totals other) {
+            return new Totals(variance + other.variance, improvement + other.improvement,
+                    games + other.games, wins + other.wins);
+        }
+    }
+
+    /**
+     * Persisted form of the engine, with the size and modification time of the results
+     * file it was computed from.
+     */
+    record Snapshot(long sourceSize, long sourceModified, long periodMillis, long openPeriod,
+                    Map<String, Rating> closed, Map<String, Totals> open) {
+    }
+
+    /**
+     * A game seen from one side, the unit in which {@link #recompute} counts a period.
+     */
+    private record Game(String player, String opponent, double score) {
+    }
+
+    /**
+     * A game seen from one side, in its rating period.
+     */
+    private record Side(long period, Game game) {
+    }
+
+    private final long periodMillis;
+    private Map<String, Rating> closed = new HashMap<>();
+    private long openPeriod = Long.MIN_VALUE;
+    private final Map<String, Totals> open = new HashMap<>();
+    private final Map<String, Rating> current = new HashMap<>();
+    private Map<String, Rating> published;
+
+    /**
+     * @param period the length of a rating period.
+     */
+    public RatingEngine(@NonNull Duration period) {
+        if (period.toMillis() <= 0) {
+            throw new IllegalArgumentException("The rating period must be positive.");
+        }
+        this.periodMillis = period.toMillis();
+    }
+
+    public RatingEngine() {
+        this(DEFAULT_PERIOD);
+    }
+
+    private long period(GameResult result) {
+        return Math.floorDiv(result.getStartDateTime().toInstant().toEpochMilli(), periodMillis);
+    }
+
+    private static double score(GameResult result) {
+        var winner = result.getWinnerName();
+        return winner.equals(result.getPlayer1Name()) ? 1 : winner.equals(result.getPlayer2Name()) ? 0 : 0.5;
+    }
+
+    /**
+     * Rates a result that started no earlier than the results already rated.
+     * @param result the result to rate.
+     * @return false if the result belongs to an already closed period, in which case
+     *     the ratings must be {@link #recompute recomputed} to include it.
+     */
+    public synchronized boolean add(@NonNull GameResult result) {
+        long period = period(result);
+        if (period < openPeriod) {
+            return false;
+        }
+        if (period > openPeriod) {
+            open(period);
+        }
+        var player1 = result.getPlayer1Name();
+        var player2 = result.getPlayer2Name();
+        if (!player1.equals(player2)) {
+            double score = score(result);
+            play(player1, player2, score, 1);
+            play(player2, player1, 1 - score, 1);
+        }
+        published = null;
+        return true;
+    }
+
+    /**
+     * Closes the open period, if any, and opens the given one.
+     */
+    private void open(long period) {
+        if (!open.isEmpty()) {
+            closed = new HashMap<>(current);
+            open.clear();
+        }
+        openPeriod = period;
+    }
+
+    /**
+     * Adds games of a player in the open period to the player's sums, and rates the player again.
+     */
+    private void play(String name, String opponentName, double score, long count) {
+        var totals = open.getOrDefault(name, Totals.NONE).plus(terms(name, opponentName, score, count));
+        open.put(name, totals);
+        current.put(name, rate(closed.get(name), totals, openPeriod));
+    }
+
+    /**
+     * Computes the terms games of a player in the open period add to the player's sums.
+     * Only the closed ratings are read, so the terms of different players can be computed concurrently.
+     * @param count the number of identical games.
+     */
+    private Totals terms(String name, String opponentName, double score, long count) {
+        var own = closed.get(name);
+        var opponent = closed.get(opponentName);
+        double rating = own == null ? INITIAL_RATING : own.rating();
+        double opponentRating = opponent == null ? INITIAL_RATING : opponent.rating();
+        double g = g(deviationAt(opponent, openPeriod));
+        double expected = 1 / (1 + Math.pow(10, -g * (rating - opponentRating) / 400));
+        return new Totals(
+                count * g * g * expected * (1 - expected),
+                count * g * (score - expected),
+                count,
+                score == 1 ? count : 0);
+    }
+
+    /**
+     * Forgets every rating, and rates the results from scratch in the order of their start times.
+     * The results are read once, in parallel and in any order; only the number of games between
+     * every two players of every period is kept, not the results themselves. The periods are then
+     * rated one after the other, and the players of a period in parallel.
+     * @param results the results to rate, in any order.
+     */
+    public synchronized void recompute(@NonNull Stream<GameResult> results) {
+        TreeMap<Long, Map<Game, Long>> periods = results.parallel()
+                .filter(result -> !result.getPlayer1Name().equals(result.getPlayer2Name()))
+                .flatMap(result -> {
+                    long period = period(result);
+                    double score = score(result);
+                    return Stream.of(
+                            new Side(period, new Game(result.getPlayer1Name(), result.getPlayer2Name(), score)),
+                            new Side(period, new Game(result.getPlayer2Name(), result.getPlayer1Name(), 1 - score)));
+                })
+                .collect(Collectors.groupingBy(Side::period, TreeMap::new,
+                        Collectors.groupingBy(Side::game, Collectors.counting())));
+        closed = new HashMap<>();
+        open.clear();
+        current.clear();
+        openPeriod = Long.MIN_VALUE;
+        published = null;
+        periods.forEach((period, games) -> {
+            open(period);
+            var totals = games.entrySet()
+                    .parallelStream()
+                    .collect(Collectors.groupingBy(entry -> entry.getKey().player(),
+                            Collectors.reducing(Totals.NONE,
+                                    entry -> terms(entry.getKey().player(), entry.getKey().opponent(),
+                                            entry.getKey().score(), entry.getValue()),
+                                    Totals::plus)));
+            totals.forEach((name, sums) -> {
+                open.put(name, sums);
+                current.put(name, rate(closed.get(name), sums, period));
+            });
+        });
+    }
+
+    /**
+     * @return the current ratings of the players, including the open rating period.
+     */
+    public synchronized Map<String, Rating> ratings() {
+        if (published == null) {
+            published = Collections.unmodifiableMap(new HashMap<>(current));
+        }
+        return published;
+    }
+
+    /**
+     * Rates a player from the sums of the player's games in a period.
+     * @param own the rating from before the period, or {@code null} for a new player.
+     */
+    private static Rating rate(Rating own, Totals totals, long period) {
+        double rating = own == null ? INITIAL_RATING : own.rating();
+        double deviation = deviationAt(own, period);
+        double precision = 1 / (deviation * deviation) + Q * Q * totals.variance();
+        return new Rating(
+                rating + Q / precision * totals.improvement(),
+                Math.max(MIN_DEVIATION, Math.sqrt(1 / precision)),
+                (own == null ? 0 : own.games()) + totals.games(),
+                (own == null ? 0 : own.wins()) + totals.wins(),
+                period);
+    }
+
+    private static double deviationAt(Rating rating, long period) {
+        if (rating == null) {
+            return INITIAL_DEVIATION;
+        }
+        double idle = Math.max(1, period - rating.lastPeriod());
+        return Math.min(INITIAL_DEVIATION, Math.sqrt(rating.deviation() * rating.deviation() + C_SQUARED * idle));
+    }
+
+    private static double g(double deviation) {
+        return 1 / Math.sqrt(1 + 3 * Q * Q * deviation * deviation / (Math.PI * Math.PI));
+    }
+
+    /**
+     * Writes a checkpoint of the engine, so a restart does not replay the whole history.
+     * The open period is saved as the sums of its players, not as its results.
+     * @param checkpointPath the checkpoint file.
+     * @param sourceSize the size of the results file the ratings reflect.
+     * @param sourceModified the modification time of that file, in milliseconds.
+     * @throws IOException if any I/O error occurs
+     */
+    public void save(@NonNull Path checkpointPath, long sourceSize, long sourceModified) throws IOException {
+        Snapshot snapshot;
+        synchronized (this) {
+            snapshot = new Snapshot(sourceSize, sourceModified, periodMillis, openPeriod, Map.copyOf(closed), Map.copyOf(open));
+        }
+        ResultFileLock.replace(checkpointPath, temp -> Files.write(temp, JacksonHelper.writeCompact(snapshot)));
+    }
+
+    /**
+     * Loads a checkpoint, if it was written from a results file of the given size and modification
+     * time, with the same rating period.
+     * @param checkpointPath the checkpoint file.
+     * @param sourceSize the current size of the results file.
+     * @param sourceModified the current modification time of the results file, in milliseconds.
+     * @return true if the checkpoint was loaded, false if it is missing, unreadable or out of date.
+     */
+    public synchronized boolean load(@NonNull Path checkpointPath, long sourceSize, long sourceModified) {
+        if (!Files.exists(checkpointPath)) {
+            return false;
+        }
+        try {
+            var snapshot = JacksonHelper.read(Files.readString(checkpointPath), Snapshot.class);
+            if (snapshot.sourceSize() != sourceSize || snapshot.sourceModified() != sourceModified
+                    || snapshot.periodMillis() != periodMillis) {
+                return false;
+            }
+            closed = new HashMap<>(snapshot.closed());
+            open.clear();
+            open.putAll(snapshot.open());
+            openPeriod = snapshot.openPeriod();
+            current.clear();
+            current.putAll(closed);
+            open.forEach((name, totals) -> current.put(name, rate(closed.get(name), totals, openPeriod)));
+            published = null;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package boardgame.result;
+
+import lombok.NonNull;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decorates a GameResultManager with a {@link RatingEngine}, kept up to date as results are added.
+ * The engine is checkpointed in a {@code .ratings} file next to the results file, together with the
+ * size and modification time of the results file, so a restart does not replay the history.
+ * The ratings are recomputed from all the results only when the results file changed behind the
+ * manager's back, or a result older than the open rating period is added.
+ */
+public class RatingGameResultManager extends CheckpointedGameResultManager {
+
+    private final RatingEngine engine;
+
+    /**
+     * Loads the checkpoint, or rates the results if it is out of date.
+     * @param delegate the manager storing the results.
+     * @param filePath the file in which the delegate stores the results.
+     * @param period the length of a rating period.
+     * @throws IOException if the results cannot be read
+     */
+    public RatingGameResultManager(@NonNull GameResultManager delegate, @NonNull Path filePath,
+                                   @NonNull Duration period) throws IOException {
+        super(delegate, filePath, ".ratings");
+        this.engine = new RatingEngine(period);
+        refresh();
+    }
+
+    public RatingGameResultManager(@NonNull GameResultManager delegate, @NonNull Path filePath) throws IOException {
+        this(delegate, filePath, RatingEngine.DEFAULT_PERIOD);
+    }
+
+    @Override
+    protected boolean load(FileStamp stamp) {
+        return engine.load(checkpointPath, stamp.size(), stamp.modified());
+    }
+
+    @Override
+    protected void rebuild() throws IOException {
+        Logger.info("Recomputing the ratings.");
+        try (var results = delegate.stream()) {
+            engine.recompute(results);
+        }
+    }
+
+    /**
+     * Rates the results in the order of their start times.
+     */
+    @Override
+    protected void record(Collection<GameResult> results) throws IOException {
+        var sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparing(GameResult::getStartDateTime));
+        var inOrder = true;
+        for (var result : sorted) {
+            inOrder &= engine.add(result);
+        }
+        if (!inOrder) {
+            rebuild();
+        }
+    }
+
+    @Override
+    protected void save(FileStamp stamp) throws IOException {
+        engine.save(checkpointPath, stamp.size(), stamp.modified());
+    }
+
+    @Override
+    public List<PlayerStatistics> getBestPlayers(int limit) throws IOException {
+        return delegate.getBestPlayers(limit);
+    }
+
+    /**
+     * Answers from the engine, recomputing it first only if the results file changed elsewhere.
+     */
+    @Override
+    public synchronized Map<String, RatingEngine.Rating> getRatings() throws IOException {
+        refresh();
+        return engine.ratings();
+    }
+}
@@ -0,0 +1,90 @@
+package boardgame.result;
+
+import util.AtomicFiles;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes the writers of a results file, within the process and across processes.
+ * Threads of the same process queue on a lock kept per file; the thread holding it then takes
+ * an exclusive {@link FileChannel#lock() file lock} on a {@code .lock} file next to the results,
+ * which keeps out the writers of other processes. The lock file is never deleted, so every
+ * process always locks the same file.
+ * Managers take this lock before their own monitors, so decorators may hold it across the
+ * writes of their delegates without deadlocking.
+ */
+public final class ResultFileLock {
+
+    /**
+     * An action on a locked file.
+     * @param <T> the type of the result of the action.
+     */
+    @FunctionalInterface
+    public interface Action<T> {
+        T run() throws IOException;
+    }
+
+    /**
+     * Writes the new content of a file.
+     */
+    @FunctionalInterface
+    public interface Writer {
+        void write(Path temp) throws IOException;
+    }
+
+    private static final ConcurrentMap<Path, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+    private ResultFileLock() {
+    }
+
+    /**
+     * Runs an action while holding the lock of the file.
+     * The lock is reentrant within a thread.
+     * @param filePath the results file.
+     * @param action the action to run.
+     * @param <T> the type of the result of the action.
+     * @return the result of the action
+     * @throws IOException if the lock cannot be taken, or the action fails
+     */
+    public static <T> T withLock(Path filePath, Action<T> action) throws IOException {
+        var path = filePath.toAbsolutePath().normalize();
+        var lock = LOCKS.computeIfAbsent(path, key -> new ReentrantLock());
+        lock.lock();
+        try {
+            if (lock.getHoldCount() > 1) {
+                return action.run();
+            }
+            var lockPath = path.resolveSibling(path.getFileName() + ".lock");
+            try (var channel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock fileLock = channel.lock();
+                try {
+                    return action.run();
+                } finally {
+                    fileLock.release();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes a file through a temporary file in the same directory, which is then moved in place
+     * atomically, so readers see either the old or the new content, never a part of it.
+     * The replaced file keeps its permissions.
+     * @param filePath the file to replace.
+     * @param writer writes the new content into the temporary file.
+     * @throws IOException if any I/O error occurs
+     * @see AtomicFiles#replace
+     */
+    public static void replace(Path filePath, Writer writer) throws IOException {
+        AtomicFiles.replace(filePath, writer::write);
+    }
+}
@@ -0,0 +1,104 @@
+package boardgame.result;
+
+import lombok.NonNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, in-memory log of results with snapshot reads.
+ * The results are stored in fixed-size chunks that are never moved or overwritten, so a snapshot
+ * is just the chunk directory and the length at the time it was taken. Appending publishes a new
+ * snapshot through a volatile field, so readers never lock and never see a partial append,
+ * while the writer keeps appending behind them. A snapshot nobody reads any more is
+ * reclaimed by the garbage collector like any other object.
+ */
+public final class ResultLog {
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Immutable view of the log as it was when the snapshot was taken.
+     */
+    public static final class Snapshot extends AbstractList<GameResult> implements RandomAccess {
+
+        private final GameResult[][] chunks;
+        private final int size;
+
+        private Snapshot(GameResult[][] chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @Override
+        public GameResult get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private static final Snapshot EMPTY = new Snapshot(new GameResult[0][], 0);
+
+    private GameResult[][] chunks = new GameResult[16][];
+    private int size;
+    private volatile Snapshot published = EMPTY;
+
+    /**
+     * Appends the results, and publishes them together in a new snapshot.
+     * @param results the results to append.
+     */
+    public synchronized void append(@NonNull Collection<GameResult> results) {
+        results.forEach(this::put);
+        published = new Snapshot(chunks, size);
+    }
+
+    /**
+     * Appends the results of a stream as they are read, and publishes them together in a new snapshot.
+     * @param results the results to append.
+     */
+    public synchronized void append(@NonNull Stream<GameResult> results) {
+        results.sequential().forEachOrdered(this::put);
+        published = new Snapshot(chunks, size);
+    }
+
+    private void put(GameResult result) {
+        int chunk = size >>> CHUNK_BITS;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new GameResult[CHUNK_SIZE];
+        }
+        chunks[chunk][size & CHUNK_MASK] = result;
+        size++;
+    }
+
+    /**
+     * Forgets every result. Snapshots taken before keep their results.
+     */
+    public synchronized void clear() {
+        chunks = new GameResult[16][];
+        size = 0;
+        published = EMPTY;
+    }
+
+    /**
+     * Returns the results appended so far, without locking.
+     * @return the immutable view of the log
+     */
+    public Snapshot snapshot() {
+        return published;
+    }
+}
@@ -0,0 +1,396 @@
+package boardgame.result;
+
+import lombok.NonNull;
+import org.tinylog.Logger;
+import util.JacksonHelper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Implements the GameResultManager interface with a directory of JSON Lines files,
+ * one shard per day or month of the start times, in UTC.
+ *
+ * <p>The results of a period are appended to its open segment, {@code <period>.jsonl}.
+ * Once a period is over, {@link #seal()} turns its open segment into an immutable one,
+ * {@code <period>.<n>.jsonl}, or {@code <period>.<n>.jsonl.gz} when compression is enabled.
+ * A result arriving late for a sealed period starts a new open segment, which is sealed
+ * with the next number.</p>
+ *
+ * <p>Aggregates scan the segments in parallel and merge their partial results, and
+ * time-bounded queries only read the shards of the periods they overlap.</p>
+ *
+ * <p>Readers list the segments under a lock of the directory, which sealing holds while it moves
+ * a segment in place and deletes the open one, so every result is read exactly once.</p>
+ *
+ * <p>The store is opt-in: {@link GameResultManagers#defaultManager()} keeps a single journal,
+ * since its decorators follow one results file.</p>
+ */
+public class ShardedGameResultManager implements GameResultManager, Closeable {
+
+    /**
+     * The length of the period covered by a shard.
+     */
+    public enum ShardPeriod {
+        /**
+         * One shard per day.
+         */
+        DAY(DateTimeFormatter.ofPattern("uuuu-MM-dd")),
+        /**
+         * One shard per month.
+         */
+        MONTH(DateTimeFormatter.ofPattern("uuuu-MM"));
+
+        private final DateTimeFormatter format;
+
+        ShardPeriod(DateTimeFormatter format) {
+            this.format = format;
+        }
+
+        String key(Instant instant) {
+            return format.format(instant.atOffset(ZoneOffset.UTC));
+        }
+
+        Instant start(String key) {
+            return this == DAY
+                    ? LocalDate.parse(key, format).atStartOfDay(ZoneOffset.UTC).toInstant()
+                    : YearMonth.parse(key, format).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+
+        Instant end(String key) {
+            var start = start(key).atOffset(ZoneOffset.UTC);
+            return (this == DAY ? start.plusDays(1) : start.plusMonths(1)).toInstant();
+        }
+    }
+
+    private static final String OPEN_SUFFIX = ".jsonl";
+    private static final Pattern SEGMENT = Pattern.compile("(\\d{4}-\\d{2}(?:-\\d{2})?)(?:\\.(\\d+))?\\.jsonl(\\.gz)?");
+
+    /**
+     * A file of a shard.
+     * @param key the period of the shard.
+     * @param sequence the number of a sealed segment, or {@link Integer#MAX_VALUE} for the open one.
+     */
+    private record Segment(Path path, String key, int sequence) {
+
+        boolean isOpen() {
+            return sequence == Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * A segment to read, with its file already opened if it is an open segment.
+     */
+    private record Source(Segment segment, InputStream opened) {
+
+        InputStream open() throws IOException {
+            return opened != null ? opened : Files.newInputStream(segment.path());
+        }
+
+        void close() throws IOException {
+            if (opened != null) {
+                opened.close();
+            }
+        }
+    }
+
+    private final Path directory;
+    private final Path lockPath;
+    private final ShardPeriod period;
+    private final boolean compress;
+    private final Clock clock;
+    private final Map<String, JsonLinesGameResultManager> writers = new HashMap<>();
+    private String currentKey;
+
+    /**
+     * Opens or creates a sharded store, and seals the shards of past periods.
+     * @param directory the directory of the shards.
+     * @param period the period covered by a shard.
+     * @param compress whether sealed segments are compressed with gzip.
+     * @param clock the clock telling which periods are over.
+     * @throws IOException if the directory cannot be created, or a shard cannot be sealed
+     */
+    public ShardedGameResultManager(@NonNull Path directory, @NonNull ShardPeriod period, boolean compress,
+                                    @NonNull Clock clock) throws IOException {
+        this.directory = directory;
+        this.period = period;
+        this.compress = compress;
+        this.clock = clock;
+        this.lockPath = directory.resolve("segments");
+        Files.createDirectories(directory);
+        seal();
+    }
+
+    public ShardedGameResultManager(@NonNull Path directory, @NonNull ShardPeriod period, boolean compress) throws IOException {
+        this(directory, period, compress, Clock.systemUTC());
+    }
+
+    private List<Segment> segments() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.map(path -> {
+                        var matcher = SEGMENT.matcher(path.getFileName().toString());
+                        if (!matcher.matches()) {
+                            return null;
+                        }
+                        var sequence = matcher.group(2) == null ? Integer.MAX_VALUE : Integer.parseInt(matcher.group(2));
+                        return new Segment(path, matcher.group(1), sequence);
+                    })
+                    .filter(Objects::nonNull)
+                    .sorted(Comparator.comparing(Segment::key).thenComparingInt(Segment::sequence))
+                    .toList();
+        }
+    }
+
+    /**
+     * Lists the segments and opens the open ones, under the lock of the directory.
+     * Sealed segments are never deleted, so they are only opened when they are read.
+     */
+    private List<Source> sources(Predicate<Segment> filter) throws IOException {
+        return ResultFileLock.withLock(lockPath, () -> {
+            var sources = new ArrayList<Source>();
+            try {
+                for (var segment : segments()) {
+                    if (filter.test(segment)) {
+                        sources.add(new Source(segment, segment.isOpen() ? Files.newInputStream(segment.path()) : null));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                close(sources);
+                throw e;
+            }
+            return sources;
+        });
+    }
+
+    private static void close(List<Source> sources) throws IOException {
+        IOException failure = null;
+        for (var source : sources) {
+            try {
+                source.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Makes the open segments of the periods that are over immutable, compressing them if enabled.
+     * A segment is written to a temporary file and moved in place before the open segment is deleted.
+     * Both happen under the lock of the open segment, which keeps out its writers, and under the lock
+     * of the directory, which keeps out the readers, so no result is lost or read twice.
+     * The number of the sealed segment is chosen under the same locks, so stores of other processes
+     * sealing the same shard do not overwrite each other.
+     * @throws IOException if any I/O error occurs
+     */
+    public synchronized void seal() throws IOException {
+        currentKey = period.key(clock.instant());
+        for (var segment : segments()) {
+            if (!segment.isOpen() || segment.key().compareTo(currentKey) >= 0) {
+                continue;
+            }
+            var writer = writers.remove(segment.key());
+            if (writer != null) {
+                writer.close();
+            }
+            var sealed = ResultFileLock.withLock(segment.path(), () -> ResultFileLock.withLock(lockPath, () -> {
+                if (!Files.exists(segment.path())) {
+                    return null;
+                }
+                int next = segments().stream()
+                        .filter(other -> other.key().equals(segment.key()) && !other.isOpen())
+                        .mapToInt(other -> other.sequence() + 1)
+                        .max()
+                        .orElse(0);
+                var target = directory.resolve(segment.key() + "." + next + OPEN_SUFFIX + (compress ? ".gz" : ""));
+                ResultFileLock.replace(target, temp -> {
+                    if (compress) {
+                        try (var out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                            Files.copy(segment.path(), out);
+                        }
+                    } else {
+                        Files.copy(segment.path(), temp, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                });
+                target.toFile().setReadOnly();
+                Files.delete(segment.path());
+                return target;
+            }));
+            if (sealed != null) {
+                Logger.info("Sealed game result shard {}.", sealed.getFileName());
+            }
+        }
+    }
+
+    @Override
+    public void add(@NonNull GameResult result) throws IOException {
+        addAll(List.of(result));
+    }
+
+    /**
+     * Appends every result to the open segment of its period.
+     * A write to a period later than the current one seals the periods that are over first.
+     */
+    @Override
+    public synchronized void addAll(@NonNull Collection<GameResult> results) throws IOException {
+        if (period.key(clock.instant()).compareTo(currentKey) > 0) {
+            seal();
+        }
+        var byKey = new LinkedHashMap<String, List<GameResult>>();
+        for (var result : results) {
+            byKey.computeIfAbsent(period.key(result.getStartDateTime().toInstant()), key -> new ArrayList<>()).add(result);
+        }
+        for (var entry : byKey.entrySet()) {
+            writers.computeIfAbsent(entry.getKey(),
+                            key -> new JsonLinesGameResultManager(directory.resolve(key + OPEN_SUFFIX)))
+                    .addAll(entry.getValue());
+        }
+    }
+
+    @Override
+    public List<GameResult> getAll() throws IOException {
+        try (var results = stream()) {
+            return new ArrayList<>(results.toList());
+        }
+    }
+
+    /**
+     * Streams the segments one after the other, in the order of their periods.
+     */
+    @Override
+    public Stream<GameResult> stream() throws IOException {
+        return read(sources(segment -> true));
+    }
+
+    /**
+     * Reads only the shards of the periods overlapping the interval.
+     */
+    @Override
+    public Stream<GameResult> findByStartTime(@NonNull ZonedDateTime from, @NonNull ZonedDateTime to) throws IOException {
+        var start = from.toInstant();
+        var end = to.toInstant();
+        var overlapping = sources(segment -> period.end(segment.key()).isAfter(start)
+                && period.start(segment.key()).isBefore(end));
+        return read(overlapping).filter(result -> !result.getStartDateTime().isBefore(from)
+                && result.getStartDateTime().isBefore(to));
+    }
+
+    /**
+     * Counts the wins of every segment in parallel, and merges the counts.
+     */
+    @Override
+    public List<PlayerStatistics> getBestPlayers(int limit) throws IOException {
+        var sources = sources(segment -> true);
+        List<Map<String, Long>> partials;
+        try {
+            partials = sources.parallelStream()
+                    .map(source -> {
+                        try (var results = lines(source)) {
+                            return results.collect(Collectors.groupingBy(GameResult::getWinnerName, Collectors.counting()));
+                        }
+                    })
+                    .toList();
+        } finally {
+            close(sources);
+        }
+        var wins = new HashMap<String, Long>();
+        partials.forEach(partial -> partial.forEach((name, count) -> wins.merge(name, count, Long::sum)));
+        return wins.entrySet()
+                .stream()
+                .map(entry -> new PlayerStatistics(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(PlayerStatistics::getNumberOfWins).reversed()
+                        .thenComparing(PlayerStatistics::getWinnerName))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Streams the results of the segments, opening each sealed segment only when it is reached.
+     * The list of segments splits in parallel streams, so the segments are read concurrently.
+     * Closing the stream closes the segments it has not reached.
+     */
+    private Stream<GameResult> read(List<Source> sources) {
+        return sources.stream().flatMap(this::lines).onClose(() -> {
+            try {
+                close(sources);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private Stream<GameResult> lines(Source source) {
+        var segment = source.segment();
+        try {
+            var in = source.open();
+            var reader = new BufferedReader(new InputStreamReader(
+                    segment.path().toString().endsWith(".gz") ? new GZIPInputStream(in) : in, StandardCharsets.UTF_8));
+            return reader.lines()
+                    .map(ShardedGameResultManager::parse)
+                    .filter(Objects::nonNull)
+                    .onClose(() -> {
+                        try {
+                            reader.close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static GameResult parse(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            return JacksonHelper.read(line, GameResult.class);
+        } catch (IOException | RuntimeException e) {
+            Logger.warn("Skipping damaged shard line.");
+            return null;
+        }
+    }
+
+    /**
+     * Closes the open segments.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (var writer : writers.values()) {
+            writer.close();
+        }
+        writers.clear();
+    }
+}
@@ -0,0 +1,14 @@
+package boardgame.simulation;
+
+import boardgame.ai.MoveProvider;
+
+import java.util.function.Supplier;
+
+/**
+ * A named computer player of the simulation.
+ * @param name the name recorded in the game results.
+ * @param strategy creates the move provider of the player; called once per worker thread,
+ *                 since providers need not be thread-safe.
+ */
+public record Contestant(String name, Supplier<MoveProvider> strategy) {
+}
@@ -0,0 +1,170 @@
+package boardgame.simulation;
+
+import boardgame.model.BoardGameModel;
+import boardgame.model.BoardState;
+import boardgame.model.Direction;
+import boardgame.model.Move;
+import boardgame.model.MoveGenerator;
+import boardgame.model.Outcome;
+import boardgame.model.Position;
+import org.tinylog.configuration.Configuration;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Move generation benchmark and self-check.
+ * Counts the positions reached after exactly {@code depth} plies from the starting position;
+ * a finished game has no moves, so it adds nothing to the deeper counts.
+ *
+ * <p>Usage: {@code Perft [depth] [divide] [parallel] [verify]}</p>
+ */
+public final class Perft {
+
+    /**
+     * Leaf counts from the starting position, indexed by depth.
+     * Depths up to {@link #VERIFIED_DEPTH} are confirmed by {@link #referencePerft}.
+     */
+    static final long[] REFERENCE = {1L, 16L, 252L, 3_864L, 58_804L, 902_060L, 13_789_072L, 211_926_904L};
+
+    /**
+     * The deepest reference count checked by the {@code verify} option.
+     */
+    static final int VERIFIED_DEPTH = 5;
+
+    private Perft() {
+    }
+
+    /**
+     * @param state the root position; it is restored before returning.
+     * @param depth the number of plies.
+     * @return the number of leaf positions.
+     */
+    public static long perft(BoardState state, int depth) {
+        return perft(state, depth, new int[depth + 1][MoveGenerator.MAX_MOVES]);
+    }
+
+    private static long perft(BoardState state, int depth, int[][] buffers) {
+        if (depth == 0) {
+            return 1;
+        }
+        int[] moves = buffers[depth];
+        int count = state.generateMoves(moves);
+        if (depth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            state.makeMove(moves[i]);
+            nodes += perft(state, depth - 1, buffers);
+            state.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the leaves below every root move.
+     * @param state the root position.
+     * @param depth the number of plies, at least one.
+     * @param parallel whether the root moves are counted on separate threads.
+     * @return the leaf counts by root move, in generation order.
+     */
+    public static Map<String, Long> divide(BoardState state, int depth, boolean parallel) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = state.generateMoves(moves);
+        var roots = IntStream.range(0, count);
+        long[] nodes = (parallel ? roots.parallel() : roots).mapToLong(i -> {
+            var child = state.copy();
+            child.makeMove(moves[i]);
+            return perft(child, depth - 1);
+        }).toArray();
+        var result = new LinkedHashMap<String, Long>();
+        for (int i = 0; i < count; i++) {
+            result.put(Move.toString(moves[i]), nodes[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the leaves with the observable model, trying every pair of squares.
+     * The move rules are checked square by square along the {@link Direction}s,
+     * independently of the ray tables, and every accepted pair must agree with
+     * {@link BoardGameModel#canMove}.
+     * @param model the root position; it is restored before returning.
+     * @param depth the number of plies.
+     * @return the number of leaf positions.
+     * @throws IllegalStateException if the model and the reference rules disagree
+     */
+    public static long referencePerft(BoardGameModel model, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        var player = model.getPlayer();
+        boolean finished = model.evaluateTerminal(player) != Outcome.ONGOING;
+        long nodes = 0;
+        for (int from = 0; from < BoardState.SQUARES; from++) {
+            for (int to = 0; to < BoardState.SQUARES; to++) {
+                var p = BoardState.position(from);
+                var q = BoardState.position(to);
+                boolean legal = !finished && !model.isEmpty(p) && model.isCorrectPlayer(p, player) && canSlide(model, p, q);
+                if (legal != model.canMove(p, q)) {
+                    throw new IllegalStateException(String.format("canMove disagrees on %s->%s in%n%s", p, q, model));
+                }
+                if (legal) {
+                    model.move(p, q);
+                    nodes += referencePerft(model, depth - 1);
+                    model.undo();
+                }
+            }
+        }
+        return nodes;
+    }
+
+    private static boolean canSlide(BoardGameModel model, Position from, Position to) {
+        int rowChange = to.row() - from.row();
+        int colChange = to.col() - from.col();
+        if ((rowChange == 0 && colChange == 0)
+                || (rowChange != 0 && colChange != 0 && Math.abs(rowChange) != Math.abs(colChange))) {
+            return false;
+        }
+        var direction = Direction.of(Integer.signum(rowChange), Integer.signum(colChange));
+        var length = Math.max(Math.abs(rowChange), Math.abs(colChange));
+        for (var i = 1; i <= length; i++) {
+            var square = new Position(from.row() + direction.getRowChange() * i, from.col() + direction.getColChange() * i);
+            if (!model.isEmpty(square)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        var depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        var options = Arrays.asList(args);
+        var parallel = options.contains("parallel");
+        var start = new BoardState();
+        for (var d = 1; d <= depth; d++) {
+            var begin = System.nanoTime();
+            var nodes = parallel
+                    ? divide(start, d, true).values().stream().mapToLong(Long::longValue).sum()
+                    : perft(start, d);
+            var nanos = System.nanoTime() - begin;
+            var check = d < REFERENCE.length ? (nodes == REFERENCE[d] ? "ok" : "MISMATCH, expected " + REFERENCE[d]) : "no reference";
+            System.out.printf("depth %d: %,d nodes in %d ms, %,d nodes/s (%s)%n",
+                    d, nodes, nanos / 1_000_000, nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos, check);
+        }
+        if (options.contains("divide")) {
+            divide(start, depth, parallel).forEach((move, nodes) -> System.out.printf("%s: %,d%n", move, nodes));
+        }
+        if (options.contains("verify")) {
+            // The model logs every finished game it reaches; only its warnings matter here.
+            Configuration.set("writer.level", "warn");
+            var verifyDepth = Math.min(depth, VERIFIED_DEPTH);
+            var nodes = referencePerft(new BoardGameModel(), verifyDepth);
+            System.out.printf("reference depth %d: %,d nodes (%s)%n", verifyDepth, nodes,
+                    nodes == REFERENCE[verifyDepth] ? "ok" : "MISMATCH");
+        }
+    }
+}
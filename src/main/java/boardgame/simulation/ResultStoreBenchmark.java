@@ -0,0 +1,114 @@
+package boardgame.simulation;
+
+import boardgame.result.BinaryGameResultManager;
+import boardgame.result.GameResult;
+import boardgame.result.GameResultManager;
+import boardgame.result.H2GameResultManager;
+import boardgame.result.JsonGameResultManager;
+import boardgame.result.JsonLinesGameResultManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Compares the result stores on the same generated results.
+ * Every store is filled in batches, then timed on reading all the results, on the best players
+ * and on the games of one player.
+ *
+ * <p>Usage: {@code ResultStoreBenchmark [results] [players] [directory]}</p>
+ */
+public final class ResultStoreBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @FunctionalInterface
+    private interface Store {
+        GameResultManager open(Path directory) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        long run(GameResultManager manager) throws IOException;
+    }
+
+    private ResultStoreBenchmark() {
+    }
+
+    private static List<GameResult> generate(int count, int players) {
+        var random = new SplittableRandom(42);
+        var start = ZonedDateTime.now().minusDays(30);
+        var results = new ArrayList<GameResult>(count);
+        for (var i = 0; i < count; i++) {
+            var player1 = "Player" + random.nextInt(players);
+            var player2 = "Player" + random.nextInt(players);
+            results.add(new GameResult(player1, player2, random.nextBoolean() ? player1 : player2,
+                    random.nextInt(10, 120), start.plusSeconds(i)));
+        }
+        return results;
+    }
+
+    private static void time(String store, String operation, GameResultManager manager, Operation action) throws IOException {
+        var begin = System.nanoTime();
+        var result = action.run(manager);
+        System.out.printf("%-10s %-14s %8d ms  (%d)%n", store, operation, (System.nanoTime() - begin) / 1_000_000, result);
+    }
+
+    private static void benchmark(String name, Store store, Path directory, List<GameResult> results) throws IOException {
+        var manager = store.open(directory);
+        try {
+            time(name, "add batches", manager, m -> {
+                for (var from = 0; from < results.size(); from += BATCH) {
+                    m.addAll(results.subList(from, Math.min(from + BATCH, results.size())));
+                }
+                return results.size();
+            });
+            time(name, "getAll", manager, m -> m.getAll().size());
+            time(name, "getBestPlayers", manager, m -> m.getBestPlayers(10).size());
+            time(name, "findByPlayer", manager, m -> {
+                try (var games = m.findByPlayer("Player0")) {
+                    return games.count();
+                }
+            });
+        } finally {
+            if (manager instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        var count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        var players = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        var directory = Path.of(args.length > 2 ? args[2] : "benchmark");
+        var results = generate(count, players);
+        deleteRecursively(directory);
+        Files.createDirectories(directory);
+        try {
+            benchmark("json", dir -> new JsonGameResultManager(dir.resolve("results.json")), directory, results);
+            benchmark("jsonl", dir -> new JsonLinesGameResultManager(dir.resolve("results.jsonl")), directory, results);
+            benchmark("binary", dir -> new BinaryGameResultManager(dir.resolve("results.bin")), directory, results);
+            benchmark("h2", dir -> new H2GameResultManager(dir.resolve("results")), directory, results);
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package boardgame.simulation;
+
+import boardgame.ai.AlphaBetaSearch;
+import boardgame.ai.GreedyMoveProvider;
+import boardgame.ai.MoveProvider;
+import boardgame.ai.RandomMoveProvider;
+import boardgame.model.BoardGameModel.Player;
+import boardgame.model.BoardState;
+import boardgame.model.Move;
+import boardgame.model.MoveGenerator;
+import boardgame.model.Outcome;
+import boardgame.result.GameResult;
+import boardgame.result.GameResultManager;
+import boardgame.result.GameResultManagers;
+import com.github.javafaker.Faker;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Plays complete games between computer players without the user interface,
+ * and records the results in a {@link GameResultManager}.
+ * The games are split between the threads of a fork-join pool, and every worker
+ * hands its results in batches to a dedicated writer thread, so the blocking
+ * file I/O of the manager does not stall the pool. Only a few batches may wait for
+ * the writer; when the workers get ahead of it, they store their batches themselves,
+ * which holds them back instead of filling the memory. A game that reaches the ply limit
+ * is a draw; draws are counted but not recorded, as a result needs a winner.
+ */
+public class SelfPlaySimulator {
+
+    private static final int GAMES_PER_TASK = 64;
+
+    /**
+     * Number of batches waiting for the writer; a worker finding the queue full stores its batch itself.
+     */
+    private static final int PENDING_BATCHES = 16;
+
+    private static final List<Supplier<MoveProvider>> STRATEGIES = List.of(
+            RandomMoveProvider::new,
+            GreedyMoveProvider::new,
+            () -> new AlphaBetaSearch(4, Duration.ofMillis(50), 16));
+
+    private final List<Contestant> contestants;
+    private final int maxPlies;
+    private final int batchSize;
+    private final ForkJoinPool pool;
+
+    /**
+     * Summary of a simulation run.
+     * @param games the number of games played.
+     * @param draws the number of games that reached the ply limit.
+     * @param elapsed the length of the run.
+     */
+    public record Report(long games, long draws, Duration elapsed) {
+
+        /**
+         * @return the games played per second.
+         */
+        public double gamesPerSecond() {
+            return elapsed.isZero() ? 0 : games * 1e9 / elapsed.toNanos();
+        }
+    }
+
+    /**
+     * Creates a simulator running on all the cores.
+     * @param contestants the players, at least two; each game is played by two different ones.
+     * @param maxPlies the number of plies after which a game is a draw.
+     * @param batchSize the number of results a worker collects before storing them.
+     */
+    public SelfPlaySimulator(List<Contestant> contestants, int maxPlies, int batchSize) {
+        if (contestants.size() < 2) {
+            throw new IllegalArgumentException("At least two contestants are needed.");
+        }
+        this.contestants = List.copyOf(contestants);
+        this.maxPlies = maxPlies;
+        this.batchSize = batchSize;
+        this.pool = ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Plays the games, and stores the decided ones.
+     * @param games the number of games to play.
+     * @param seed the seed of the pairings.
+     * @param manager the store of the results.
+     * @return the summary of the run.
+     * @throws IOException if the results cannot be stored
+     */
+    public Report run(long games, long seed, GameResultManager manager) throws IOException {
+        long start = System.nanoTime();
+        var draws = new LongAdder();
+        var writer = new ResultWriter(manager);
+        try {
+            pool.invoke(new Games(0, games, seed, writer, draws));
+        } finally {
+            writer.finish();
+        }
+        var report = new Report(games, draws.sum(), Duration.ofNanos(System.nanoTime() - start));
+        Logger.info("Simulated {} games ({} draws) in {} ms, {} games/s.", report.games(), report.draws(),
+                report.elapsed().toMillis(), Math.round(report.gamesPerSecond()));
+        return report;
+    }
+
+    /**
+     * Stores the batches of the workers on a single thread of its own, behind a bounded queue.
+     */
+    private static class ResultWriter {
+        private final GameResultManager manager;
+        private final ThreadPoolExecutor executor;
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+        ResultWriter(GameResultManager manager) {
+            this.manager = manager;
+            this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(PENDING_BATCHES),
+                    task -> {
+                        var thread = new Thread(task, "self-play-writer");
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+
+        void submit(List<GameResult> batch) {
+            executor.execute(() -> {
+                try {
+                    manager.addAll(batch);
+                } catch (IOException | RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+        }
+
+        /**
+         * Waits for the submitted batches to be stored, and stops the writer thread.
+         * @throws IOException if a batch could not be stored
+         */
+        void finish() throws IOException {
+            executor.shutdown();
+            try {
+                while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    Logger.debug("Waiting for {} batches of results.", executor.getQueue().size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while storing the results.", e);
+            }
+            var cause = failure.get();
+            if (cause instanceof IOException e) {
+                throw e;
+            }
+            if (cause != null) {
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    private class Games extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+        private final long seed;
+        private final transient ResultWriter writer;
+        private final LongAdder draws;
+
+        Games(long from, long to, long seed, ResultWriter writer, LongAdder draws) {
+            this.from = from;
+            this.to = to;
+            this.seed = seed;
+            this.writer = writer;
+            this.draws = draws;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GAMES_PER_TASK) {
+                long middle = (from + to) >>> 1;
+                invokeAll(new Games(from, middle, seed, writer, draws), new Games(middle, to, seed, writer, draws));
+                return;
+            }
+            var random = new SplittableRandom(seed ^ from * 0x9E3779B97F4A7C15L);
+            int[] buffer = new int[MoveGenerator.MAX_MOVES];
+            var providers = new MoveProvider[contestants.size()];
+            var batch = new ArrayList<GameResult>(batchSize);
+            for (long game = from; game < to; game++) {
+                int first = random.nextInt(contestants.size());
+                int second = random.nextInt(contestants.size() - 1);
+                if (second >= first) {
+                    second++;
+                }
+                var result = play(first, second, providers, buffer);
+                if (result == null) {
+                    draws.increment();
+                    continue;
+                }
+                batch.add(result);
+                if (batch.size() >= batchSize) {
+                    store(batch);
+                }
+            }
+            store(batch);
+        }
+
+        private void store(List<GameResult> batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            writer.submit(List.copyOf(batch));
+            batch.clear();
+        }
+    }
+
+    /**
+     * Plays one game.
+     * @param providers the move providers of the contestants, created when first needed and kept by the task,
+     *     so they are dropped with it.
+     * @return the result, or {@code null} if the game is a draw.
+     */
+    private GameResult play(int first, int second, MoveProvider[] providers, int[] buffer) {
+        var startDateTime = ZonedDateTime.now();
+        var players = new MoveProvider[] {provider(providers, first), provider(providers, second)};
+        var state = new BoardState();
+        int plies = 0;
+        Player winner = null;
+        while (plies < maxPlies) {
+            var mover = state.player();
+            if (state.generateMoves(buffer) == 0) {
+                winner = mover == Player.PLAYER_1 ? Player.PLAYER_2 : Player.PLAYER_1;
+                break;
+            }
+            int move = players[mover.ordinal()].selectMove(state);
+            state.move(Move.from(move), Move.to(move));
+            plies++;
+            var outcome = state.evaluateTerminal(mover);
+            if (outcome != Outcome.ONGOING) {
+                winner = outcome == Outcome.WIN ? mover : state.player();
+                break;
+            }
+        }
+        if (winner == null) {
+            return null;
+        }
+        var player1Name = contestants.get(first).name();
+        var player2Name = contestants.get(second).name();
+        return GameResult.builder()
+                .player1Name(player1Name)
+                .player2Name(player2Name)
+                .winnerName(winner == Player.PLAYER_1 ? player1Name : player2Name)
+                .moves(plies)
+                .startDateTime(startDateTime)
+                .build();
+    }
+
+    private MoveProvider provider(MoveProvider[] providers, int contestant) {
+        if (providers[contestant] == null) {
+            providers[contestant] = contestants.get(contestant).strategy().get();
+        }
+        return providers[contestant];
+    }
+
+    private static List<Contestant> createContestants() {
+        var faker = new Faker(Locale.ENGLISH);
+        var contestants = new ArrayList<Contestant>();
+        for (var i = 0; i < 10; i++) {
+            contestants.add(new Contestant(faker.name().firstName(), STRATEGIES.get(i % STRATEGIES.size())));
+        }
+        return contestants;
+    }
+
+    /**
+     * Plays simulated games into the default result store, and prints the best players.
+     * @param args the optional number of games, 100 by default.
+     * @throws IOException if the results cannot be stored
+     */
+    public static void main(String[] args) throws IOException {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 100;
+        var manager = GameResultManagers.defaultManager();
+        new SelfPlaySimulator(createContestants(), 200, 50).run(games, System.nanoTime(), manager);
+        manager.getBestPlayers(10).forEach(System.out::println);
+    }
+}
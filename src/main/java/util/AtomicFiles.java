@@ -0,0 +1,71 @@
+package util;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Helper class for replacing files atomically.
+ */
+public class AtomicFiles {
+
+    /**
+     * Writes the new content of a file.
+     */
+    @FunctionalInterface
+    public interface Writer {
+        void write(Path temp) throws IOException;
+    }
+
+    /**
+     * Writes a file through a temporary file in the same directory, which is then moved in place
+     * atomically, so readers see either the old or the new content, never a part of it.
+     * The temporary file is created with the default permissions, or with the permissions of the
+     * file it replaces, so the replaced file keeps them.
+     *
+     * @param filePath the file to replace
+     * @param writer writes the new content into the temporary file
+     * @throws IOException if any I/O error occurs
+     */
+    public static void replace(Path filePath, Writer writer) throws IOException {
+        var temp = createTemp(filePath);
+        try {
+            writer.write(temp);
+            Files.move(temp, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Creates an empty file next to the target. Unlike {@link Files#createTempFile}, which makes
+     * the file readable by its owner only, this leaves the permissions to the umask.
+     */
+    private static Path createTemp(Path filePath) throws IOException {
+        var directory = filePath.toAbsolutePath().getParent();
+        var prefix = filePath.getFileName().toString();
+        while (true) {
+            var temp = directory.resolve(prefix + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try {
+                Files.createFile(temp);
+            } catch (FileAlreadyExistsException e) {
+                continue;
+            }
+            var view = Files.getFileAttributeView(temp, PosixFileAttributeView.class);
+            try {
+                if (view != null && Files.exists(filePath)) {
+                    view.setPermissions(Files.getPosixFilePermissions(filePath));
+                }
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            return temp;
+        }
+    }
+
+}
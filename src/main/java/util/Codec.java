@@ -0,0 +1,261 @@
+package util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Interchangeable Jackson formats for reading and writing objects and lists of objects.
+ * Every codec accesses the properties through generated lambdas instead of reflection,
+ * and keeps a ready {@link ObjectReader} and {@link ObjectWriter} for every type it has handled,
+ * so the types are resolved only once.
+ */
+public enum Codec {
+
+    /**
+     * Indented JSON, for files read by people.
+     */
+    PRETTY_JSON(new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)),
+
+    /**
+     * JSON without whitespace.
+     */
+    COMPACT_JSON(new ObjectMapper()),
+
+    /**
+     * Smile, the binary form of JSON.
+     */
+    SMILE(new ObjectMapper(new SmileFactory()));
+
+    /**
+     * The first bytes of every Smile document.
+     */
+    private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+
+    private final ObjectMapper mapper;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectReader> listReaders = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> listWriters = new ConcurrentHashMap<>();
+    private final ObjectWriter listWriter;
+
+    Codec(ObjectMapper mapper) {
+        this.mapper = mapper
+                .registerModule(new JavaTimeModule())
+                .registerModule(new BlackbirdModule())
+                .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        this.listWriter = this.mapper.writerFor(List.class);
+    }
+
+    /**
+     * Finds the codec of encoded data from its first bytes.
+     * The stream must support {@link InputStream#mark}; it is reset before returning.
+     *
+     * @param in the stream of the encoded data
+     * @return {@link #SMILE} if the data starts with the Smile header, {@link #PRETTY_JSON} otherwise
+     * @throws IOException if any I/O error occurs
+     */
+    public static Codec detect(InputStream in) throws IOException {
+        in.mark(SMILE_HEADER.length);
+        var header = in.readNBytes(SMILE_HEADER.length);
+        in.reset();
+        return Arrays.equals(header, SMILE_HEADER) ? SMILE : PRETTY_JSON;
+    }
+
+    private ObjectReader reader(Class<?> type) {
+        return readers.computeIfAbsent(type, mapper::readerFor);
+    }
+
+    private ObjectReader listReader(Class<?> elementClass) {
+        return listReaders.computeIfAbsent(elementClass,
+                type -> mapper.readerFor(mapper.getTypeFactory().constructCollectionType(List.class, type)));
+    }
+
+    private ObjectWriter writer(Class<?> type) {
+        return writers.computeIfAbsent(type, mapper::writerFor);
+    }
+
+    private ObjectWriter listWriter(Class<?> elementClass) {
+        return listWriters.computeIfAbsent(elementClass,
+                type -> mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, type)));
+    }
+
+    /**
+     * Deserializes a list of objects.
+     *
+     * @param in the input stream from which the data will be read
+     * @param elementClass represents the class of the elements
+     * @return the list of deserialized objects
+     * @param <T> the type of the list elements
+     * @throws IOException if any I/O error occurs
+     */
+    public <T> List<T> readList(InputStream in, Class<T> elementClass) throws IOException {
+        return listReader(elementClass).readValue(in);
+    }
+
+    /**
+     * Deserializes the elements of an array one by one, as they are read from the stream.
+     * Only the elements being processed are held in memory. For parallel streams,
+     * the spliterator splits off batches of {@code 1024} elements.
+     * Closing the returned stream closes the input stream.
+     *
+     * @param in the input stream from which the data will be read
+     * @param elementClass represents the class of the elements
+     * @return the stream of deserialized objects
+     * @param <T> the type of the elements
+     * @throws IOException if the data does not start with an array
+     */
+    public <T> Stream<T> streamList(InputStream in, Class<T> elementClass) throws IOException {
+        var parser = mapper.createParser(in);
+        try {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Array expected.");
+            }
+        } catch (IOException e) {
+            parser.close();
+            throw e;
+        }
+        return StreamSupport.stream(new ArraySpliterator<T>(parser, reader(elementClass)), false)
+                .onClose(() -> {
+                    try {
+                        parser.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private static final class ArraySpliterator<T> implements Spliterator<T> {
+
+        private static final int BATCH_SIZE = 1024;
+
+        private final JsonParser parser;
+        private final ObjectReader reader;
+        private boolean finished;
+
+        private ArraySpliterator(JsonParser parser, ObjectReader reader) {
+            this.parser = parser;
+            this.reader = reader;
+        }
+
+        @Override
+        public synchronized boolean tryAdvance(Consumer<? super T> action) {
+            if (finished) {
+                return false;
+            }
+            try {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    finished = true;
+                    return false;
+                }
+                action.accept(reader.readValue(parser));
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            @SuppressWarnings("unchecked")
+            T[] batch = (T[]) new Object[BATCH_SIZE];
+            int[] size = {0};
+            while (size[0] < BATCH_SIZE && tryAdvance(element -> batch[size[0]++] = element)) {
+                // the element is stored by the action
+            }
+            return size[0] == 0 ? null : Spliterators.spliterator(batch, 0, size[0], characteristics());
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+
+    /**
+     * Serializes a list of objects of a known class, with a writer prepared for the element class.
+     *
+     * @param out the output stream to which the data will be written
+     * @param list the list of objects to be serialized
+     * @param elementClass represents the class of the elements
+     * @param <T> the type of the list elements
+     * @throws IOException if any I/O error occurs
+     */
+    public <T> void writeList(OutputStream out, List<? extends T> list, Class<T> elementClass) throws IOException {
+        listWriter(elementClass).writeValue(out, list);
+    }
+
+    /**
+     * Serializes a list of objects, looking up the serializer of every element by its class.
+     * Prefer {@link #writeList(OutputStream, List, Class)} when the element class is known.
+     *
+     * @param out the output stream to which the data will be written
+     * @param list the list of objects to be serialized
+     * @throws IOException if any I/O error occurs
+     */
+    public void writeList(OutputStream out, List<?> list) throws IOException {
+        listWriter.writeValue(out, list);
+    }
+
+    /**
+     * Serializes an object.
+     *
+     * @param value the object to be serialized
+     * @return the encoded object
+     * @throws IOException if any serialization error occurs
+     */
+    public byte[] write(Object value) throws IOException {
+        return writer(value.getClass()).writeValueAsBytes(value);
+    }
+
+    /**
+     * Deserializes an object.
+     *
+     * @param data the encoded object
+     * @param type represents the class of the object
+     * @return the deserialized object
+     * @param <T> the type of the object
+     * @throws IOException if the data is not valid for the type
+     */
+    public <T> T read(byte[] data, Class<T> type) throws IOException {
+        return reader(type).readValue(data);
+    }
+
+    /**
+     * Deserializes an object from text.
+     *
+     * @param text the encoded object, in a text format
+     * @param type represents the class of the object
+     * @return the deserialized object
+     * @param <T> the type of the object
+     * @throws IOException if the text is not valid for the type
+     */
+    public <T> T read(String text, Class<T> type) throws IOException {
+        return reader(type).readValue(text);
+    }
+}
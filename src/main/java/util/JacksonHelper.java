@@ -1,25 +1,18 @@
 package util;
 
-import com.fasterxml.jackson.databind.JavaType;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Helper class for reading and writing a list of objects to JSON.
+ * Lists are written as indented JSON and single objects as compact JSON;
+ * see {@link Codec} for the other formats.
  */
 public class JacksonHelper {
 
-    private static final ObjectMapper MAPPER = new ObjectMapper()
-            .registerModule(new JavaTimeModule())
-            .enable(SerializationFeature.INDENT_OUTPUT)
-            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
-
     /**
      * Deserializes a list of objects from JSON.
      *
@@ -30,8 +23,22 @@ public class JacksonHelper {
      * @throws IOException if any I/O error occurs
      */
     public static <T> List<T> readList(InputStream in, Class<T> elementClass) throws IOException {
-        JavaType type = MAPPER.getTypeFactory().constructCollectionType(List.class, elementClass);
-        return MAPPER.readValue(in, type);
+        return Codec.PRETTY_JSON.readList(in, elementClass);
+    }
+
+    /**
+     * Deserializes the elements of a JSON array one by one, as they are read from the stream.
+     * Closing the returned stream closes the input stream.
+     *
+     * @param in the input stream from which JSON data will be read
+     * @param elementClass represents the class of the elements
+     * @return the stream of objects deserialized from JSON
+     * @param <T> the type of the elements
+     * @throws IOException if the data does not start with a JSON array
+     * @see Codec#streamList
+     */
+    public static <T> Stream<T> streamList(InputStream in, Class<T> elementClass) throws IOException {
+        return Codec.PRETTY_JSON.streamList(in, elementClass);
     }
 
     /**
@@ -43,7 +50,44 @@ public class JacksonHelper {
      * @throws IOException if any I/O error occurs
      */
     public static <T> void writeList(OutputStream out, List<T> list) throws IOException {
-        MAPPER.writeValue(out, list);
+        Codec.PRETTY_JSON.writeList(out, list);
+    }
+
+    /**
+     * Serializes a list of objects of a known class to JSON.
+     *
+     * @param out the output stream to which JSON data will be written
+     * @param list the list of objects to be serialized
+     * @param elementClass represents the class of the elements
+     * @param <T> the type of the list elements
+     * @throws IOException if any I/O error occurs
+     */
+    public static <T> void writeList(OutputStream out, List<? extends T> list, Class<T> elementClass) throws IOException {
+        Codec.PRETTY_JSON.writeList(out, list, elementClass);
+    }
+
+    /**
+     * Serializes an object to a single line of compact JSON.
+     *
+     * @param value the object to be serialized
+     * @return the UTF-8 encoded JSON, without a line terminator
+     * @throws IOException if any serialization error occurs
+     */
+    public static byte[] writeCompact(Object value) throws IOException {
+        return Codec.COMPACT_JSON.write(value);
+    }
+
+    /**
+     * Deserializes an object from JSON text.
+     *
+     * @param json the JSON text
+     * @param type represents the class of the object
+     * @return the object deserialized from JSON
+     * @param <T> the type of the object
+     * @throws IOException if the text is not valid JSON for the type
+     */
+    public static <T> T read(String json, Class<T> type) throws IOException {
+        return Codec.COMPACT_JSON.read(json, type);
     }
 
 }
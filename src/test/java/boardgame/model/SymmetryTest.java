@@ -0,0 +1,97 @@
+package boardgame.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SymmetryTest {
+
+    /**
+     * Positions reached by random games from the start.
+     */
+    private static List<BoardState> positions() {
+        var random = new Random(7);
+        var positions = new ArrayList<BoardState>();
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        for (int game = 0; game < 200; game++) {
+            var state = new BoardState();
+            for (int ply = 0; ply < 40 && !state.isTerminal(); ply++) {
+                positions.add(state.copy());
+                int count = state.generateMoves(buffer);
+                if (count == 0) {
+                    break;
+                }
+                int move = buffer[random.nextInt(count)];
+                state.move(Move.from(move), Move.to(move));
+            }
+        }
+        return positions;
+    }
+
+    private static List<Integer> moves(BoardState state) {
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        int count = state.generateMoves(buffer);
+        var moves = new ArrayList<Integer>();
+        for (int i = 0; i < count; i++) {
+            moves.add(buffer[i]);
+        }
+        return moves;
+    }
+
+    @Test
+    void inverseUndoesEveryTransform() {
+        for (var state : positions()) {
+            for (int t = 0; t < Symmetry.TRANSFORMS; t++) {
+                assertEquals(state, Symmetry.transform(Symmetry.transform(state, t), Symmetry.inverse(t)));
+            }
+        }
+    }
+
+    @Test
+    void symmetricPositionsShareTheCanonicalForm() {
+        for (var state : positions()) {
+            long canonical = Symmetry.canonicalize(state);
+            assertEquals(Symmetry.state(canonical), Symmetry.transform(state, Symmetry.transform(canonical)));
+            for (int t = 0; t < Symmetry.TRANSFORMS; t++) {
+                var image = Symmetry.transform(state, t);
+                assertEquals(Symmetry.key(canonical), Symmetry.key(Symmetry.canonicalize(image)));
+                long imageKey = (long) image.red() << 17 | (long) image.blue() << 1 | image.player().ordinal();
+                assertTrue(Symmetry.key(canonical) <= imageKey, "the canonical key is the smallest");
+            }
+        }
+    }
+
+    @Test
+    void transformsPreserveTheRules() {
+        for (var state : positions()) {
+            var player = state.player();
+            for (int t = 0; t < Symmetry.TRANSFORMS; t++) {
+                var image = Symmetry.transform(state, t);
+                assertEquals(state.isTerminal(), image.isTerminal());
+                var mover = image.player();
+                assertEquals(state.evaluateTerminal(player), image.evaluateTerminal(mover));
+                var mapped = new HashSet<Integer>();
+                for (int move : moves(state)) {
+                    mapped.add(Symmetry.transformMove(move, t));
+                }
+                assertEquals(mapped, new HashSet<>(moves(image)));
+            }
+        }
+    }
+
+    @Test
+    void startPositionHasAllItsImagesInOneClass() {
+        var keys = new HashSet<Long>();
+        var start = new BoardState();
+        for (int t = 0; t < Symmetry.TRANSFORMS; t++) {
+            keys.add(Symmetry.key(Symmetry.canonicalize(Symmetry.transform(start, t))));
+        }
+        assertEquals(1, keys.size());
+    }
+}
@@ -0,0 +1,182 @@
+package boardgame.result;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingGameResultManagerTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @TempDir
+    Path directory;
+
+    /**
+     * The stack of the default manager, over a file of the test.
+     */
+    private static CachingGameResultManager stack(Path file) throws IOException {
+        return new CachingGameResultManager(
+                new RatingGameResultManager(
+                        new LeaderboardGameResultManager(new IndexedGameResultManager(new JsonLinesGameResultManager(file)), file),
+                        file),
+                file);
+    }
+
+    private static GameResult result(String winner, String loser, int i) {
+        return new GameResult(winner, loser, winner, 5, START.plusSeconds(i));
+    }
+
+    @Test
+    void aggregatesAreCachedUntilTheResultsChange() throws IOException {
+        var file = directory.resolve("results.jsonl");
+        try (var manager = stack(file)) {
+            manager.addAll(List.of(result("A", "B", 0), result("A", "C", 1)));
+            var computed = new AtomicInteger();
+            Function<List<GameResult>, Integer> size = results -> {
+                computed.incrementAndGet();
+                return results.size();
+            };
+            assertEquals(2, manager.aggregate("size", size));
+            assertEquals(2, manager.aggregate("size", size));
+            assertEquals(1, computed.get());
+            assertEquals(List.of(new PlayerStatistics("A", 2)), manager.getBestPlayers(1));
+
+            manager.addAll(List.of(result("B", "A", 2), result("B", "C", 3), result("B", "D", 4)));
+            assertEquals(5, manager.aggregate("size", size));
+            assertEquals(2, computed.get());
+            assertEquals(List.of(new PlayerStatistics("B", 3)), manager.getBestPlayers(1));
+        }
+    }
+
+    @Test
+    void changesFromOutsideAreSeen() throws IOException {
+        var file = directory.resolve("results.jsonl");
+        try (var manager = stack(file); var other = new JsonLinesGameResultManager(file)) {
+            manager.add(result("A", "B", 0));
+            assertEquals(1, manager.snapshot().size());
+            assertEquals(List.of(new PlayerStatistics("A", 1)), manager.getBestPlayers(1));
+
+            other.addAll(List.of(result("C", "A", 1), result("C", "B", 2)));
+            assertEquals(3, manager.snapshot().size());
+            assertEquals(List.of(new PlayerStatistics("C", 2)), manager.getBestPlayers(1));
+        }
+    }
+
+    @Test
+    void slowAggregateDoesNotBlockWriters() throws Exception {
+        var file = directory.resolve("results.jsonl");
+        try (var manager = stack(file)) {
+            manager.add(result("A", "B", 0));
+            var started = new CountDownLatch(1);
+            var released = new CountDownLatch(1);
+            var failure = new ConcurrentLinkedQueue<Throwable>();
+            var reader = new Thread(() -> {
+                try {
+                    manager.aggregate("slow", results -> {
+                        started.countDown();
+                        try {
+                            released.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return results.size();
+                    });
+                } catch (Throwable e) {
+                    failure.add(e);
+                }
+            });
+            reader.start();
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            try {
+                assertTimeoutPreemptively(Duration.ofSeconds(10), () -> manager.add(result("C", "D", 1)));
+                assertEquals(2, manager.snapshot().size());
+            } finally {
+                released.countDown();
+                reader.join();
+            }
+            assertEquals(List.of(), List.copyOf(failure));
+        }
+    }
+
+    @Test
+    void concurrentStacksNeitherLoseNorDuplicateResults() throws Exception {
+        var file = directory.resolve("results.jsonl");
+        int count = 1000;
+        try (var first = stack(file); var second = stack(file)) {
+            var stop = new AtomicBoolean();
+            var failures = new ConcurrentLinkedQueue<Throwable>();
+            Runnable firstWriter = () -> {
+                try {
+                    for (int i = 0; i < count; i++) {
+                        first.add(result("A" + i % 5, "A-" + i, i));
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            };
+            Runnable secondWriter = () -> {
+                try {
+                    for (int i = 0; i < count; i++) {
+                        second.addAll(List.of(result("B" + i % 5, "B-" + i, i)));
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            };
+            Runnable reader = () -> {
+                try {
+                    int last = 0;
+                    while (!stop.get()) {
+                        var snapshot = first.snapshot();
+                        var seen = new HashSet<String>();
+                        snapshot.forEach(result -> assertTrue(seen.add(result.getPlayer2Name()),
+                                "read twice: " + result.getPlayer2Name()));
+                        assertTrue(snapshot.size() >= last, "the results shrank");
+                        last = snapshot.size();
+                        first.getPlayerStatistics(3);
+                        first.getBestPlayers(3);
+                        second.getRatings();
+                        second.getTopRatedPlayers(2);
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            };
+            var writers = List.of(new Thread(firstWriter), new Thread(secondWriter));
+            var readers = List.of(new Thread(reader), new Thread(reader));
+            writers.forEach(Thread::start);
+            readers.forEach(Thread::start);
+            for (var thread : writers) {
+                thread.join();
+            }
+            stop.set(true);
+            for (var thread : readers) {
+                thread.join();
+            }
+            assertEquals(List.of(), List.copyOf(failures));
+
+            assertEquals(2 * count, first.snapshot().size());
+            assertEquals(2 * count, second.snapshot().size());
+            assertEquals(2 * count, first.getBestPlayers(100).stream().mapToLong(PlayerStatistics::getNumberOfWins).sum());
+            assertEquals(2 * count, second.getPlayerStatistics(100).stream().mapToLong(PlayerStatistics::getNumberOfWins).sum());
+            assertEquals(2 * count, first.getRatings().values().stream().mapToLong(RatingEngine.Rating::wins).sum());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package boardgame.result;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Several processes, each with several threads, add uniquely named results to the same file
+ * at the same time; every result must then be stored exactly once.
+ */
+class ConcurrentWriteTest {
+
+    private static final int PROCESSES = 3;
+    private static final int THREADS = 4;
+
+    @TempDir
+    Path directory;
+
+    private static GameResultManager open(String format, Path file) {
+        return switch (format) {
+            case "json" -> new JsonGameResultManager(file);
+            case "jsonl" -> new JsonLinesGameResultManager(file);
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+
+    private static int resultsPerThread(String format) {
+        return format.equals("json") ? 40 : 250;
+    }
+
+    /**
+     * Adds the results of one process, one at a time from every thread,
+     * through a group commit so concurrent adds share a write.
+     */
+    private static void write(String format, Path file, String tag) throws Exception {
+        int results = resultsPerThread(format);
+        var delegate = open(format, file);
+        var executor = Executors.newFixedThreadPool(THREADS);
+        try (var manager = new GroupCommitGameResultManager(delegate, 256, Duration.ZERO)) {
+            var futures = new ArrayList<Future<?>>();
+            for (var t = 0; t < THREADS; t++) {
+                var thread = t;
+                futures.add(executor.submit(() -> {
+                    for (var i = 0; i < results; i++) {
+                        var name = tag + "-" + thread + "-" + i;
+                        manager.add(new GameResult(name, "opponent", name, i, ZonedDateTime.now()));
+                    }
+                    return null;
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            if (delegate instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * Entry point of the other writer processes.
+     */
+    public static void main(String[] args) throws Exception {
+        write(args[0], Path.of(args[1]), args[2]);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"json", "jsonl"})
+    void noResultIsLostOrDuplicated(String format) throws Exception {
+        var file = directory.resolve("results." + format);
+        var java = ProcessHandle.current().info().command().orElse("java");
+        var children = new ArrayList<Process>();
+        for (var p = 1; p < PROCESSES; p++) {
+            children.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    ConcurrentWriteTest.class.getName(), format, file.toString(), "p" + p)
+                    .inheritIO()
+                    .start());
+        }
+        write(format, file, "p0");
+        for (var child : children) {
+            assertTrue(child.waitFor(2, TimeUnit.MINUTES), "writer process did not finish");
+            assertEquals(0, child.exitValue(), "writer process failed");
+        }
+
+        var counts = new HashMap<String, Integer>();
+        for (var result : open(format, file).getAll()) {
+            counts.merge(result.getPlayer1Name(), 1, Integer::sum);
+        }
+        int results = resultsPerThread(format);
+        assertEquals(PROCESSES * THREADS * results, counts.size(), "results were lost");
+        for (var p = 0; p < PROCESSES; p++) {
+            for (var t = 0; t < THREADS; t++) {
+                for (var i = 0; i < results; i++) {
+                    assertEquals(1, counts.getOrDefault("p" + p + "-" + t + "-" + i, 0));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package boardgame.result;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndexedGameResultManagerTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2026, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @TempDir
+    Path directory;
+
+    private GameResultManager open(String backend) throws IOException {
+        return switch (backend) {
+            case "jsonl" -> new JsonLinesGameResultManager(directory.resolve("results.jsonl"));
+            case "json" -> new JsonGameResultManager(directory.resolve("results.json"));
+            case "binary" -> new BinaryGameResultManager(directory.resolve("results.bin"));
+            default -> throw new IllegalArgumentException(backend);
+        };
+    }
+
+    private static List<GameResult> results(int count) {
+        var random = new Random(42);
+        var results = new ArrayList<GameResult>();
+        for (int i = 0; i < count; i++) {
+            var player1 = "P" + random.nextInt(8);
+            var player2 = "P" + random.nextInt(8);
+            results.add(new GameResult(player1, player2, random.nextBoolean() ? player1 : player2, random.nextInt(60),
+                    START.plusSeconds(random.nextInt(100_000)).plusNanos(random.nextInt(1000) * 1_000_000L)));
+        }
+        return results;
+    }
+
+    private static void assertLookups(GameResultManager indexed, GameResultManager store) throws IOException {
+        var all = store.getAll();
+        for (int i = 0; i < 8; i++) {
+            var name = "P" + i;
+            assertEquals(all.stream().filter(result -> result.getPlayer1Name().equals(name)
+                            || result.getPlayer2Name().equals(name)).toList(),
+                    indexed.findByPlayer(name).toList());
+            assertEquals(all.stream().filter(result -> result.getWinnerName().equals(name)).toList(),
+                    indexed.findByWinner(name).toList());
+        }
+        var from = START.plusSeconds(20_000);
+        var to = START.plusSeconds(60_000);
+        assertEquals(all.stream()
+                        .filter(result -> !result.getStartDateTime().isBefore(from) && result.getStartDateTime().isBefore(to))
+                        .sorted(Comparator.comparing(result -> result.getStartDateTime().toInstant()))
+                        .toList(),
+                indexed.findByStartTime(from, to).toList());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jsonl", "json", "binary"})
+    void lookupsMatchAScanOfTheBackend(String backend) throws IOException {
+        var results = results(600);
+        var store = open(backend);
+        store.addAll(results.subList(0, 400));
+        var indexed = new IndexedGameResultManager(store);
+        try {
+            assertLookups(indexed, store);
+            indexed.addAll(results.subList(400, 500));
+            indexed.add(results.get(500));
+            assertLookups(indexed, store);
+            indexed.addAll(results.subList(501, 600));
+            assertLookups(indexed, store);
+            assertEquals(600, store.getAll().size());
+        } finally {
+            if (store instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package boardgame.result;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PlayerStatisticsCollectorTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2026, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private static GameResult result(String player1, String player2, String winner, int moves, int minute) {
+        return new GameResult(player1, player2, winner, moves, START.plusMinutes(minute));
+    }
+
+    /**
+     * Results of three players, with a few move counts far beyond the dense histogram.
+     */
+    private static List<GameResult> results() {
+        var random = new Random(11);
+        var results = new ArrayList<GameResult>();
+        for (int i = 0; i < 5000; i++) {
+            var player1 = "P" + random.nextInt(3);
+            var player2 = "Q" + random.nextInt(3);
+            int moves = switch (random.nextInt(50)) {
+                case 0 -> Integer.MAX_VALUE;
+                case 1 -> 1024 + random.nextInt(100_000);
+                default -> random.nextInt(200);
+            };
+            results.add(result(player1, player2, random.nextBoolean() ? player1 : player2, moves, i));
+        }
+        return results;
+    }
+
+    /**
+     * Runs the collector over two halves of the results separately, and combines them.
+     */
+    private static <A> Map<String, PlayerStatistics> collectInTwo(
+            Collector<GameResult, A, Map<String, PlayerStatistics>> collector, List<GameResult> results, int split) {
+        var earlier = collector.supplier().get();
+        results.subList(0, split).forEach(result -> collector.accumulator().accept(earlier, result));
+        var later = collector.supplier().get();
+        results.subList(split, results.size()).forEach(result -> collector.accumulator().accept(later, result));
+        return collector.finisher().apply(collector.combiner().apply(earlier, later));
+    }
+
+    private static int percentile(List<Integer> sorted, double fraction) {
+        return sorted.get((int) Math.max(1, Math.ceil(fraction * sorted.size())) - 1);
+    }
+
+    @Test
+    void percentilesAreExactAcrossTheSparseTail() {
+        var results = results();
+        var statistics = results.stream().collect(PlayerStatisticsCollector.collector());
+        for (var entry : statistics.entrySet()) {
+            var name = entry.getKey();
+            var moves = results.stream()
+                    .filter(result -> result.getPlayer1Name().equals(name) || result.getPlayer2Name().equals(name))
+                    .map(GameResult::getMoves)
+                    .sorted()
+                    .toList();
+            assertEquals(moves.size(), entry.getValue().getGames());
+            assertEquals(percentile(moves, 0.5), entry.getValue().getMedianMoves());
+            assertEquals(percentile(moves, 0.9), entry.getValue().getP90Moves());
+        }
+    }
+
+    @Test
+    void combiningPartsGivesTheSequentialStatistics() {
+        var results = results();
+        var sequential = results.stream().collect(PlayerStatisticsCollector.collector());
+        for (int split : new int[] {0, 1, 2500, 4999, 5000}) {
+            assertEquals(sequential, collectInTwo(PlayerStatisticsCollector.collector(), results, split));
+        }
+        assertEquals(sequential, results.parallelStream().collect(PlayerStatisticsCollector.collector()));
+    }
+
+    @Test
+    void tailOnlyOnOneSideIsMerged() {
+        var dense = List.of(result("A", "B", "A", 10, 0), result("A", "B", "A", 20, 1));
+        var sparse = List.of(result("A", "B", "B", Integer.MAX_VALUE, 2), result("A", "B", "A", 5000, 3));
+        var all = new ArrayList<>(dense);
+        all.addAll(sparse);
+        var statistics = collectInTwo(PlayerStatisticsCollector.collector(), all, dense.size()).get("A");
+        assertEquals(4, statistics.getGames());
+        assertEquals(20, statistics.getMedianMoves());
+        assertEquals(Integer.MAX_VALUE, statistics.getP90Moves());
+        assertEquals(statistics, collectInTwo(PlayerStatisticsCollector.collector(), all, 2).get("A"));
+        var reversed = new ArrayList<>(sparse);
+        reversed.addAll(dense);
+        var tailFirst = collectInTwo(PlayerStatisticsCollector.collector(), reversed, sparse.size()).get("A");
+        assertEquals(20, tailFirst.getMedianMoves());
+        assertEquals(Integer.MAX_VALUE, tailFirst.getP90Moves());
+    }
+
+    @Test
+    void winStreaksSpanTheParts() {
+        var results = new ArrayList<GameResult>();
+        String[] winners = {"A", "A", "B", "A", "A", "A", "A", "B", "A"};
+        for (int i = 0; i < winners.length; i++) {
+            results.add(result("A", "B", winners[i], 10, i));
+        }
+        for (int split = 0; split <= winners.length; split++) {
+            var statistics = collectInTwo(PlayerStatisticsCollector.collector(), results, split);
+            assertEquals(4, statistics.get("A").getLongestWinStreak());
+            assertEquals(1, statistics.get("B").getLongestWinStreak());
+        }
+    }
+}
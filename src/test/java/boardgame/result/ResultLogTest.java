@@ -0,0 +1,88 @@
+package boardgame.result;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResultLogTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private static List<GameResult> results(int from, int to) {
+        return IntStream.range(from, to)
+                .mapToObj(i -> new GameResult("P" + i, "Q", "Q", i, START.plusSeconds(i)))
+                .toList();
+    }
+
+    @Test
+    void snapshotsKeepTheirResults() {
+        var log = new ResultLog();
+        var empty = log.snapshot();
+        log.append(results(0, 1000));
+        var first = log.snapshot();
+        log.append(results(1000, 5000));
+        var second = log.snapshot();
+        log.clear();
+        log.append(results(0, 10));
+
+        assertEquals(List.of(), empty);
+        assertEquals(results(0, 1000), first);
+        assertEquals(results(0, 5000), second);
+        assertEquals(results(0, 10), log.snapshot());
+        assertThrows(IndexOutOfBoundsException.class, () -> first.get(1000));
+        assertThrows(UnsupportedOperationException.class, () -> second.add(results(0, 1).get(0)));
+    }
+
+    @Test
+    void appendsAStream() {
+        var log = new ResultLog();
+        log.append(results(0, 3000).parallelStream());
+        assertEquals(results(0, 3000), log.snapshot());
+        assertSame(log.snapshot(), log.snapshot());
+    }
+
+    @Test
+    void readersSeeWholeAppends() throws Exception {
+        var log = new ResultLog();
+        var expected = results(0, 20_000);
+        var stop = new AtomicBoolean();
+        var failures = new ConcurrentLinkedQueue<Throwable>();
+        Runnable reader = () -> {
+            try {
+                while (!stop.get()) {
+                    var snapshot = log.snapshot();
+                    assertEquals(0, snapshot.size() % 100, "partial append");
+                    for (int i = 0; i < snapshot.size(); i++) {
+                        assertSame(expected.get(i), snapshot.get(i));
+                    }
+                }
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        };
+        var readers = new ArrayList<Thread>();
+        for (int i = 0; i < 2; i++) {
+            readers.add(new Thread(reader));
+        }
+        readers.forEach(Thread::start);
+        for (int from = 0; from < expected.size(); from += 100) {
+            log.append(expected.subList(from, from + 100));
+        }
+        stop.set(true);
+        for (var thread : readers) {
+            thread.join();
+        }
+        assertEquals(List.of(), List.copyOf(failures));
+        assertEquals(expected, log.snapshot());
+    }
+}
@@ -0,0 +1,209 @@
+package boardgame.result;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedGameResultManagerTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @TempDir
+    Path directory;
+
+    /**
+     * A clock the test moves forward.
+     */
+    private static final class MovableClock extends Clock {
+        private volatile Instant now;
+
+        MovableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private List<String> files(String suffix) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString()).filter(name -> name.endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    @Test
+    void sealedMonthsAnswerLikeTheResults() throws IOException {
+        var random = new Random(1);
+        var results = new ArrayList<GameResult>();
+        for (int i = 0; i < 20_000; i++) {
+            var player1 = "P" + random.nextInt(20);
+            var player2 = "Q" + random.nextInt(20);
+            results.add(new GameResult(player1, player2, random.nextBoolean() ? player1 : player2, random.nextInt(80),
+                    START.plusSeconds((long) i * 210 * 86_400 / 20_000)));
+        }
+        var clock = Clock.fixed(START.plusMonths(7).toInstant(), ZoneOffset.UTC);
+        try (var store = new ShardedGameResultManager(directory, ShardedGameResultManager.ShardPeriod.MONTH, true, clock)) {
+            store.addAll(results);
+            store.seal();
+            assertEquals(7, files(".jsonl.gz").size());
+            assertEquals(List.of(), files(".jsonl").stream().filter(name -> !name.contains(".0.")).toList());
+
+            assertEquals(results, store.getAll());
+            var from = START.plusDays(40);
+            var to = START.plusDays(95);
+            assertEquals(results.stream()
+                            .filter(result -> !result.getStartDateTime().isBefore(from) && result.getStartDateTime().isBefore(to))
+                            .toList(),
+                    store.findByStartTime(from, to).toList());
+
+            var wins = new HashMap<String, Long>();
+            results.forEach(result -> wins.merge(result.getWinnerName(), 1L, Long::sum));
+            var best = wins.entrySet().stream()
+                    .sorted(Comparator.comparing((java.util.Map.Entry<String, Long> entry) -> entry.getValue()).reversed()
+                            .thenComparing(java.util.Map.Entry::getKey))
+                    .limit(5)
+                    .map(entry -> new PlayerStatistics(entry.getKey(), entry.getValue()))
+                    .toList();
+            assertEquals(best, store.getBestPlayers(5));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void lateResultsAreSealedWithTheNextNumber(boolean compress) throws IOException {
+        var clock = new MovableClock(START.toInstant());
+        var suffix = compress ? ".jsonl.gz" : ".jsonl";
+        try (var store = new ShardedGameResultManager(directory, ShardedGameResultManager.ShardPeriod.DAY, compress, clock)) {
+            store.add(new GameResult("A", "B", "A", 10, START.plusHours(1)));
+            clock.advance(Duration.ofDays(1));
+            store.seal();
+            store.add(new GameResult("C", "D", "C", 10, START.plusHours(2)));
+            store.seal();
+            assertEquals(List.of("2024-01-01.0" + suffix, "2024-01-01.1" + suffix), files(suffix).stream()
+                    .filter(name -> name.startsWith("2024-01-01.")).toList());
+            assertEquals(List.of("A", "C"), store.stream().map(GameResult::getWinnerName).toList());
+        }
+    }
+
+    @Test
+    void writerFollowsASegmentSealedByAnotherStore() throws IOException {
+        var clock = new MovableClock(START.toInstant());
+        try (var first = new ShardedGameResultManager(directory, ShardedGameResultManager.ShardPeriod.DAY, false, clock);
+             var second = new ShardedGameResultManager(directory, ShardedGameResultManager.ShardPeriod.DAY, false, clock)) {
+            first.add(new GameResult("A", "B", "A", 10, START.plusHours(1)));
+            clock.advance(Duration.ofDays(1));
+            second.seal();
+            first.add(new GameResult("C", "D", "C", 10, START.plusHours(2)));
+            second.seal();
+            assertEquals(List.of("A", "C"), second.stream().map(GameResult::getWinnerName).sorted().toList());
+        }
+    }
+
+    @Test
+    void concurrentSealingNeitherLosesNorDuplicatesResults() throws Exception {
+        var clock = new MovableClock(START.toInstant());
+        var period = ShardedGameResultManager.ShardPeriod.DAY;
+        try (var first = new ShardedGameResultManager(directory, period, false, clock);
+             var second = new ShardedGameResultManager(directory, period, true, clock)) {
+            var written = new AtomicInteger();
+            var stop = new AtomicBoolean();
+            var failures = new ConcurrentLinkedQueue<Throwable>();
+            Runnable writer = () -> {
+                try {
+                    for (int i = 0; i < 1500; i++) {
+                        int n = written.getAndIncrement();
+                        var time = ZonedDateTime.ofInstant(clock.instant(), ZoneOffset.UTC);
+                        (n % 2 == 0 ? first : second).add(new GameResult("R" + n, "S", "S", 5, time));
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            };
+            Runnable sealer = () -> {
+                try {
+                    while (!stop.get()) {
+                        clock.advance(Duration.ofHours(6));
+                        first.seal();
+                        second.seal();
+                        Thread.sleep(2);
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            };
+            Runnable reader = () -> {
+                try {
+                    while (!stop.get()) {
+                        var seen = new HashSet<String>();
+                        try (var results = first.stream()) {
+                            results.forEach(result -> assertTrue(seen.add(result.getPlayer1Name()),
+                                    "read twice: " + result.getPlayer1Name()));
+                        }
+                        second.getBestPlayers(3);
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            };
+            var writers = List.of(new Thread(writer), new Thread(writer));
+            var others = List.of(new Thread(sealer), new Thread(reader), new Thread(reader));
+            writers.forEach(Thread::start);
+            others.forEach(Thread::start);
+            for (var thread : writers) {
+                thread.join();
+            }
+            stop.set(true);
+            for (var thread : others) {
+                thread.join();
+            }
+            assertEquals(List.of(), List.copyOf(failures));
+
+            clock.advance(Duration.ofDays(2));
+            first.seal();
+            var names = second.stream().map(GameResult::getPlayer1Name).toList();
+            assertEquals(written.get(), names.size());
+            assertEquals(written.get(), new HashSet<>(names).size());
+            assertFalse(files(".jsonl").stream().anyMatch(name -> name.matches("\\d{4}-\\d{2}-\\d{2}\\.jsonl")));
+        }
+    }
+}